@@ -0,0 +1,120 @@
+package com.bankdata.benchmarks;
+
+import com.bankdata.account.messaging.AccountEventEncoder;
+import com.bankdata.account.messaging.EventEncoding;
+import com.bankdata.account.messaging.PublishMode;
+import com.bankdata.account.messaging.PublisherConfig;
+import com.bankdata.analytics.application.IncomingEvent;
+import com.bankdata.analytics.application.ParsedEvent;
+import com.bankdata.contracts.events.AccountEvent;
+import com.bankdata.contracts.events.AccountEventCodec;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+//AccountEvent on both sides of Kafka, JSON vs binary (AccountEventCodec):
+//producer - AccountEventEncoder.encode, consumer - ParsedEvent.parse(IncomingEvent), the decode step of AccountEventIngestionService.
+//Encoded sizes are printed once per trial.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountEventCodecBenchmark {
+    @Param({"ACCOUNT_CREATED", "MONEY_TRANSFERRED"})
+    public String type;
+
+    private AccountEventEncoder jsonEncoder;
+    private AccountEventEncoder binaryEncoder;
+    private ObjectMapper mapper;
+    private AccountEvent event;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        mapper = quarkusLikeMapper();
+        jsonEncoder = new AccountEventEncoder(mapper, config(EventEncoding.JSON));
+        binaryEncoder = new AccountEventEncoder(mapper, config(EventEncoding.BINARY));
+
+        event = switch (type) {
+            case "ACCOUNT_CREATED" -> AccountEvent.created("0000000001", "100.00");
+            case "MONEY_TRANSFERRED" -> AccountEvent.transferred("0000000001", "0000000002", "12.34");
+            default -> throw new IllegalArgumentException(type);
+        };
+        json = jsonEncoder.encode(event).payload();
+        binary = binaryEncoder.encode(event).payload();
+        //JMH has no per-benchmark constant result, the sizes go to the run log next to the timings
+        System.out.printf("%n%s encoded size: json=%d bytes, binary=%d bytes%n", type, json.length, binary.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return jsonEncoder.encode(event).payload();
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return binaryEncoder.encode(event).payload();
+    }
+
+    @Benchmark
+    public ParsedEvent decodeJson() {
+        return ParsedEvent.parse(new IncomingEvent(AccountEventCodec.JSON_CONTENT_TYPE, ByteBuffer.wrap(json)), mapper);
+    }
+
+    @Benchmark
+    public ParsedEvent decodeBinary() {
+        return ParsedEvent.parse(new IncomingEvent(AccountEventCodec.CONTENT_TYPE, ByteBuffer.wrap(binary)), mapper);
+    }
+
+    //same settings Quarkus applies to its ObjectMapper bean
+    private static ObjectMapper quarkusLikeMapper() {
+        return JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    private static PublisherConfig config(EventEncoding encoding) {
+        return new PublisherConfig() {
+            @Override
+            public PublishMode mode() {
+                return PublishMode.DIRECT;
+            }
+
+            @Override
+            public EventEncoding encoding() {
+                return encoding;
+            }
+
+            @Override
+            public int bufferSize() {
+                return 1;
+            }
+
+            @Override
+            public int batchSize() {
+                return 1;
+            }
+
+            @Override
+            public int maxInFlightBatches() {
+                return 1;
+            }
+
+            @Override
+            public Duration offerTimeout() {
+                return Duration.ZERO;
+            }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.bankdata.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+//Closed-loop HTTP load test against a RUNNING account-service (not JMH: the point is the server's threading,
+//not a hot loop in this JVM). `concurrency` clients (virtual threads here, so the client is never the limit)
+//each send the next request as soon as the previous one answered: 50% deposits, 30% transfers, 20% balance reads
+//over `accounts` accounts created upfront with /accounts:bulk.
+//
+//Compare the two execution models of the same build:
+//  QUARKUS_VIRTUAL_THREADS_ENABLED=true  java -jar quarkus-run.jar   (default, @RunOnVirtualThread)
+//  QUARKUS_VIRTUAL_THREADS_ENABLED=false java -jar quarkus-run.jar   (same endpoints on the worker pool)
+//  java -cp benchmarks/target/benchmarks.jar com.bankdata.benchmarks.AccountLoadTest --concurrency 2000
+public final class AccountLoadTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private AccountLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestArgs.parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8081");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "1000"));
+        int accounts = Integer.parseInt(options.getOrDefault("accounts", "1000"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build()) {
+            List<String> accountNumbers = createAccounts(client, url, accounts);
+            System.out.printf("url=%s concurrency=%d accounts=%d warmup=%ds duration=%ds%n",
+                    url, concurrency, accountNumbers.size(), warmup.toSeconds(), duration.toSeconds());
+
+            run(client, url, accountNumbers, concurrency, warmup, new LatencyReport());
+            LatencyReport report = new LatencyReport();
+            run(client, url, accountNumbers, concurrency, duration, report);
+            report.print(duration);
+        }
+    }
+
+    private static List<String> createAccounts(HttpClient client, String url, int count) throws Exception {
+        List<String> numbers = new ArrayList<>(count);
+        while (numbers.size() < count) {
+            int chunk = Math.min(1000, count - numbers.size());
+            StringBuilder body = new StringBuilder("{\"accounts\":[");
+            for (int i = 0; i < chunk; i++) {
+                body.append(i == 0 ? "" : ",").append("{\"firstName\":\"Load\",\"lastName\":\"Test\",\"initialDeposit\":1000000.00}");
+            }
+            body.append("]}");
+            HttpResponse<String> response = client.send(post(url + "/accounts:bulk", body.toString()),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Bulk create failed: " + response.statusCode() + " " + response.body());
+            }
+            for (JsonNode account : MAPPER.readTree(response.body()).get("accounts")) {
+                numbers.add(account.get("accountNumber").asText());
+            }
+        }
+        return numbers;
+    }
+
+    private static void run(HttpClient client, String url, List<String> accounts, int concurrency,
+                            Duration duration, LatencyReport report) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = nextRequest(url, accounts);
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        report.record(System.nanoTime() - start, status);
+                    }
+                });
+            }
+        }
+    }
+
+    private static HttpRequest nextRequest(String url, List<String> accounts) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String account = accounts.get(random.nextInt(accounts.size()));
+        int kind = random.nextInt(10);
+        if (kind < 5) {
+            return post(url + "/accounts/" + account + "/deposit", "{\"amount\":1.00}");
+        }
+        if (kind < 8) {
+            String other = accounts.get(random.nextInt(accounts.size()));
+            if (other.equals(account)) {
+                return post(url + "/accounts/" + account + "/deposit", "{\"amount\":1.00}");
+            }
+            return post(url + "/accounts/transfer",
+                    "{\"fromAccountNumber\":\"" + account + "\",\"toAccountNumber\":\"" + other + "\",\"amount\":0.01}");
+        }
+        return HttpRequest.newBuilder(URI.create(url + "/accounts/" + account + "/balance"))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest post(String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.bankdata.benchmarks;
+
+import com.bankdata.account.support.AccountNumberGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Old generator (SecureRandom + String.format, may collide) vs the sequence-block generator.
+//The block supplier is in-memory here, so this measures generation only - one DB round trip per block is not included.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountNumberGeneratorBenchmark {
+    private final SecureRandom random = new SecureRandom();
+
+    private AccountNumberGenerator generator;
+
+    @Setup
+    public void setUp() {
+        AtomicLong blocks = new AtomicLong();
+        //wraps around so a long run never exhausts the number space
+        generator = new AccountNumberGenerator(() -> blocks.incrementAndGet() % 999_999, 1000, new SimpleMeterRegistry());
+    }
+
+    //copy of the previous AccountNumberGenerator.next()
+    @Benchmark
+    public String legacyRandomFormat() {
+        long value = Math.abs(random.nextLong()) % 1_000_000_0000L;
+        return String.format("%010d", value);
+    }
+
+    @Benchmark
+    public String sequencePermutation() {
+        return generator.next();
+    }
+
+    //next() takes a ReentrantLock, this measures that lock when many request threads create accounts at once
+    @Benchmark
+    @Threads(4)
+    public String sequencePermutationContended() {
+        return generator.next();
+    }
+}
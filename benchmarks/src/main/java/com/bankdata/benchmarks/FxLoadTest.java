@@ -0,0 +1,108 @@
+package com.bankdata.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+//Open-loop HTTP load test against a RUNNING fx-service: requests are started at a FIXED rate whether or not the
+//previous ones answered, and latency is measured from the moment a request was SCHEDULED. A slow server therefore
+//shows up as latency instead of silently lowering the request rate (no coordinated omission).
+//
+//Offline, with the built-in provider stub (latency/errors/drift via FX_STUB_* env vars):
+//  QUARKUS_PROFILE=stub FX_STUB_LATENCY=200ms FX_STUB_ERROR_RATE=0.05 java -jar quarkus-run.jar
+//  java -cp benchmarks/target/benchmarks.jar com.bankdata.benchmarks.FxLoadTest --rps 2000 --duration 30
+//  java -cp benchmarks/target/benchmarks.jar com.bankdata.benchmarks.FxLoadTest --mode batch --items 500 --rps 50
+public final class FxLoadTest {
+
+    private static final String[] CURRENCIES = {"USD", "DKK", "EUR", "GBP", "SEK", "NOK", "CHF", "JPY"};
+
+    private FxLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestArgs.parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8082");
+        String mode = options.getOrDefault("mode", "pair");
+        int rps = Integer.parseInt(options.getOrDefault("rps", "500"));
+        int items = Integer.parseInt(options.getOrDefault("items", "100"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        if (!mode.equals("pair") && !mode.equals("batch")) {
+            throw new IllegalArgumentException("--mode must be pair or batch");
+        }
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build()) {
+            System.out.printf("url=%s mode=%s rps=%d%s warmup=%ds duration=%ds%n", url, mode, rps,
+                    mode.equals("batch") ? " items=" + items : "", warmup.toSeconds(), duration.toSeconds());
+
+            run(client, () -> nextRequest(url, mode, items), rps, warmup, new LatencyReport());
+            LatencyReport report = new LatencyReport();
+            run(client, () -> nextRequest(url, mode, items), rps, duration, report);
+            report.print(duration);
+        }
+    }
+
+    private static void run(HttpClient client, Supplier<HttpRequest> requests, int rps,
+                            Duration duration, LatencyReport report) throws Exception {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime();
+        long total = duration.toSeconds() * rps;
+        List<CompletableFuture<?>> pending = new ArrayList<>((int) Math.min(total, Integer.MAX_VALUE));
+        for (long i = 0; i < total; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            pending.add(client.sendAsync(requests.get(), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        report.record(System.nanoTime() - scheduledAt, failure == null ? response.statusCode() : -1);
+                        return null;
+                    }));
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        } catch (TimeoutException timeout) {
+            System.out.println("some requests did not answer within 30s after the run, they are not counted");
+        }
+    }
+
+    private static HttpRequest nextRequest(String url, String mode, int items) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (mode.equals("pair")) {
+            String amount = random.nextInt(1, 100_000) + "." + String.format("%02d", random.nextInt(100));
+            return HttpRequest.newBuilder(URI.create(url + "/fx/dkk-usd?amount=" + amount))
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build();
+        }
+        StringBuilder body = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < items; i++) {
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"from\":\"").append(CURRENCIES[random.nextInt(CURRENCIES.length)])
+                    .append("\",\"to\":\"").append(CURRENCIES[random.nextInt(CURRENCIES.length)])
+                    .append("\",\"amount\":").append(random.nextInt(1, 10_000)).append(".00}");
+        }
+        body.append("]}");
+        return HttpRequest.newBuilder(URI.create(url + "/fx/convert:batch"))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.bankdata.benchmarks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+//Latency histogram for the HTTP load tests: fixed buckets (no per-request allocation, safe from any number of
+//threads), percentiles are the upper bound of the bucket they fall in. Plus a count per HTTP status (-1 = no answer).
+final class LatencyReport {
+
+    private static final long[] BOUNDS_MICROS = {
+            250, 500, 1_000, 2_000, 5_000, 10_000, 20_000, 50_000, 100_000, 200_000, 500_000, 1_000_000, 2_000_000, 5_000_000
+    };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MICROS.length + 1);
+    private final LongAdder count = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long nanos, int status) {
+        long micros = nanos / 1_000;
+        int bucket = 0;
+        while (bucket < BOUNDS_MICROS.length && micros > BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        statuses.computeIfAbsent(status, ignored -> new LongAdder()).increment();
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    void print(Duration duration) {
+        long total = count.sum();
+        if (total == 0) {
+            System.out.println("no requests completed");
+            return;
+        }
+        System.out.printf("requests=%d throughput=%.0f req/s%n", total, total / (double) duration.toSeconds());
+        System.out.printf("latency ms: p50<=%s p90<=%s p99<=%s p99.9<=%s max=%.1f%n",
+                percentile(0.50), percentile(0.90), percentile(0.99), percentile(0.999), max.get() / 1e6);
+        System.out.println("status codes: " + new TreeMap<>(statuses));
+        System.out.println("histogram:");
+        for (int i = 0; i < buckets.length(); i++) {
+            long n = buckets.get(i);
+            if (n == 0) {
+                continue;
+            }
+            String label = i < BOUNDS_MICROS.length ? "<= " + millis(BOUNDS_MICROS[i]) + " ms" : " > " + millis(BOUNDS_MICROS[i - 1]) + " ms";
+            System.out.printf("  %-12s %8d %6.2f%% %s%n", label, n, 100.0 * n / total, "#".repeat((int) Math.ceil(50.0 * n / total)));
+        }
+    }
+
+    private String percentile(double quantile) {
+        long rank = (long) Math.ceil(quantile * count.sum());
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MICROS.length; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return millis(BOUNDS_MICROS[i]);
+            }
+        }
+        return "> " + millis(BOUNDS_MICROS[BOUNDS_MICROS.length - 1]);
+    }
+
+    private static String millis(long micros) {
+        return micros < 1_000 ? String.valueOf(micros / 1000.0) : String.valueOf(micros / 1_000);
+    }
+}
@@ -0,0 +1,22 @@
+package com.bankdata.benchmarks;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+//"--name value" pairs of the HTTP load tests
+final class LoadTestArgs {
+
+    private LoadTestArgs() {
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new TreeMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --name value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,105 @@
+package com.bankdata.benchmarks;
+
+import com.bankdata.account.application.RequestAmounts;
+import com.bankdata.account.domain.AccountEntity;
+import com.bankdata.account.domain.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+//Money hot path of every operation: request amount normalization + entity arithmetic.
+//legacy* benchmarks are a copy of the previous BigDecimal code (setScale(2, UNNECESSARY), add/subtract/compareTo)
+//and stay here as the baseline for the long minor units path.
+//toMoney_* call RequestAmounts.toMoney, the same helper AccountService normalizes request amounts with.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyArithmeticBenchmark {
+    private BigDecimal alreadyScaled;
+    private BigDecimal oneDecimal;
+    private BigDecimal tooPrecise;
+
+    private BigDecimal legacyAmount;
+    private BigDecimal legacyFrom;
+    private BigDecimal legacyTo;
+
+    private Money amount;
+    private AccountEntity from;
+    private AccountEntity to;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        alreadyScaled = new BigDecimal("125.50");
+        oneDecimal = new BigDecimal("125.5");
+        tooPrecise = new BigDecimal("125.505");
+
+        legacyAmount = new BigDecimal("1.25");
+        legacyFrom = new BigDecimal("1000000.00");
+        legacyTo = new BigDecimal("1000000.00");
+
+        amount = Money.parse("1.25");
+        from = new AccountEntity("0000000001", "Bench", "From", Money.parse("1000000.00"));
+        to = new AccountEntity("0000000002", "Bench", "To", Money.parse("1000000.00"));
+    }
+
+    @Benchmark
+    public BigDecimal legacyNormalize_alreadyScaled() {
+        return alreadyScaled.setScale(2, RoundingMode.UNNECESSARY);
+    }
+
+    @Benchmark
+    public BigDecimal legacyNormalize_rescale() {
+        return oneDecimal.setScale(2, RoundingMode.UNNECESSARY);
+    }
+
+    @Benchmark
+    public Money toMoney_alreadyScaled() {
+        return RequestAmounts.toMoney(alreadyScaled, "amount");
+    }
+
+    @Benchmark
+    public Money toMoney_rescale() {
+        return RequestAmounts.toMoney(oneDecimal, "amount");
+    }
+
+    //rejected input: exception + BadRequestException, shows what invalid requests cost
+    @Benchmark
+    public Object toMoney_rejected() {
+        try {
+            return RequestAmounts.toMoney(tooPrecise, "amount");
+        } catch (RuntimeException expected) {
+            return expected;
+        }
+    }
+
+    //one transfer there and back, so balances stay stable over the whole iteration
+    @Benchmark
+    public BigDecimal legacyTransferArithmetic() {
+        legacyFrom = legacyWithdraw(legacyFrom, legacyAmount);
+        legacyTo = legacyTo.add(legacyAmount);
+        legacyTo = legacyWithdraw(legacyTo, legacyAmount);
+        legacyFrom = legacyFrom.add(legacyAmount);
+        return legacyFrom;
+    }
+
+    @Benchmark
+    public long transferArithmetic() {
+        from.withdraw(amount);
+        to.deposit(amount);
+        to.withdraw(amount);
+        from.deposit(amount);
+        return from.getBalance().minorUnits();
+    }
+
+    private static BigDecimal legacyWithdraw(BigDecimal balance, BigDecimal amount) {
+        if (amount.signum() <= 0 || balance.compareTo(amount) < 0) {
+            throw new IllegalStateException();
+        }
+        return balance.subtract(amount);
+    }
+}
@@ -0,0 +1,152 @@
+package com.bankdata.benchmarks;
+
+import com.bankdata.account.domain.MinorUnitsConverter;
+import com.bankdata.account.domain.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//Transfers from many threads against in-memory H2. This is a MODEL of AccountService.transfer, not the real code
+//(that needs the Quarkus container, a datasource and the outbox): it replays the same SQL-level locking in plain JDBC.
+//- accounts table = the AccountEntity mapping: account_number varchar(32) unique, names, balance NUMERIC(19,2)
+//- both rows locked one by one with SELECT ... FOR UPDATE in account number order (AccountRepository.getForUpdate)
+//- balance read through MinorUnitsConverter into long minor units, withdraw/deposit as Money arithmetic with the
+//  insufficient funds check, absolute balance written back - the read-modify-write Hibernate does on flush
+//Not modelled: Hibernate itself, the outbox insert, the striped hot-account locks. Fewer accounts = hotter rows.
+//Keep the DDL and the steps in sync with AccountEntity / AccountService.transfer when they change.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class TransferContentionBenchmark {
+    private static final String URL = "jdbc:h2:mem:transfer-bench;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+    private static final Money AMOUNT = Money.parse("0.01");
+    private static final MinorUnitsConverter CONVERTER = new MinorUnitsConverter();
+
+    @State(Scope.Benchmark)
+    public static class Database {
+        @Param({"2", "16", "10000"})
+        public int accounts;
+
+        private Connection keepAlive;
+        private String[] numbers;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            numbers = new String[accounts];
+            for (int i = 0; i < accounts; i++) {
+                numbers[i] = String.format("%010d", i);
+            }
+            keepAlive = DriverManager.getConnection(URL, "sa", "sa");
+            try (Statement statement = keepAlive.createStatement()) {
+                statement.execute("drop table if exists accounts");
+                statement.execute("create table accounts (id bigint primary key, account_number varchar(32) not null,"
+                        + " first_name varchar(100) not null, last_name varchar(100) not null,"
+                        + " balance numeric(19, 2) not null,"
+                        + " constraint uq_account_number unique (account_number))");
+            }
+            try (PreparedStatement insert = keepAlive.prepareStatement(
+                    "insert into accounts (id, account_number, first_name, last_name, balance) values (?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < accounts; i++) {
+                    insert.setLong(1, i);
+                    insert.setString(2, numbers[i]);
+                    insert.setString(3, "Bench");
+                    insert.setString(4, "Account");
+                    insert.setBigDecimal(5, CONVERTER.convertToDatabaseColumn(Money.parse("1000000000.00").minorUnits()));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            try (Statement statement = keepAlive.createStatement()) {
+                statement.execute("drop table accounts");
+            }
+            keepAlive.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        private Connection connection;
+        private PreparedStatement lock;
+        private PreparedStatement update;
+
+        //Database parameter makes JMH create the table before the per-thread connections prepare statements
+        @Setup(Level.Trial)
+        public void setUp(Database db) throws SQLException {
+            connection = DriverManager.getConnection(URL, "sa", "sa");
+            connection.setAutoCommit(false);
+            lock = connection.prepareStatement("select id, balance from accounts where account_number = ? for update");
+            update = connection.prepareStatement("update accounts set balance = ? where id = ?");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int transfer(Database db, Session session) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(db.accounts);
+        int to = random.nextInt(db.accounts - 1);
+        if (to >= from) {
+            to++;
+        }
+        //lock order = account number order, same as AccountService.transfer
+        String firstNumber = db.numbers[Math.min(from, to)];
+        String secondNumber = db.numbers[Math.max(from, to)];
+
+        try {
+            long[] first = lock(session.lock, firstNumber);
+            long[] second = lock(session.lock, secondNumber);
+            long[] source = from < to ? first : second;
+            long[] target = from < to ? second : first;
+
+            //AccountEntity.withdraw / deposit
+            if (source[1] < AMOUNT.minorUnits()) {
+                throw new IllegalStateException("insufficient funds on " + db.numbers[from]);
+            }
+            source[1] = Money.subtractExact(source[1], AMOUNT.minorUnits());
+            target[1] = Money.addExact(target[1], AMOUNT.minorUnits());
+
+            write(session.update, source);
+            write(session.update, target);
+            session.connection.commit();
+            return 2;
+        } catch (SQLException | RuntimeException e) {
+            session.connection.rollback();
+            throw e;
+        }
+    }
+
+    //{id, balance in minor units}
+    private static long[] lock(PreparedStatement lock, String accountNumber) throws SQLException {
+        lock.setString(1, accountNumber);
+        try (ResultSet row = lock.executeQuery()) {
+            if (!row.next()) {
+                throw new IllegalStateException("account not found: " + accountNumber);
+            }
+            return new long[]{row.getLong(1), CONVERTER.convertToEntityAttribute(row.getBigDecimal(2))};
+        }
+    }
+
+    private static void write(PreparedStatement update, long[] account) throws SQLException {
+        update.setBigDecimal(1, CONVERTER.convertToDatabaseColumn(account[1]));
+        update.setLong(2, account[0]);
+        update.executeUpdate();
+    }
+}
@@ -0,0 +1,271 @@
+package com.bankdata.contracts.events;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+//Compact binary wire format for AccountEvent. Producer and consumer agree on it via the content-type header,
+//records without the header (or with application/json) are JSON as before.
+//
+//Layout v1 (big endian):
+//  u8  version (1)
+//  u8  type code (see typeCode, NOT the enum ordinal - reordering the enum must not change the format)
+//  u8  presence flags for the 5 optional fields below
+//  i64 eventId most significant bits, i64 eventId least significant bits
+//  i64 occurredAt in epoch micros (sub-microsecond part is dropped)
+//  [accountNumber] [fromAccountNumber] [toAccountNumber] - u8 length + UTF-8 bytes, max 255 bytes
+//  [amount] [balance] - u8 scale + zigzag varint of the unscaled value, "10.00" -> scale 2, 1000
+//
+//A typical event is ~45 bytes instead of ~250 bytes of JSON. Null fields cost nothing.
+public final class AccountEventCodec {
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+    public static final String CONTENT_TYPE = "application/vnd.bankdata.account-event.v1+binary";
+    public static final String JSON_CONTENT_TYPE = "application/json";
+
+    public static final byte VERSION = 1;
+
+    private static final int FIXED_SIZE = 3 + 16 + 8;
+    private static final int MAX_STRING_BYTES = 255;
+    private static final int MAX_SCALE = 18;
+
+    private static final int HAS_ACCOUNT = 1;
+    private static final int HAS_FROM = 1 << 1;
+    private static final int HAS_TO = 1 << 2;
+    private static final int HAS_AMOUNT = 1 << 3;
+    private static final int HAS_BALANCE = 1 << 4;
+
+    private AccountEventCodec() {
+    }
+
+    //IllegalArgumentException if some value does not fit the format (too long string, amount not a plain decimal)
+    //- callers are expected to fall back to JSON for such an event
+    public static byte[] encode(AccountEvent event) {
+        byte[] account = utf8(event.accountNumber(), "accountNumber");
+        byte[] from = utf8(event.fromAccountNumber(), "fromAccountNumber");
+        byte[] to = utf8(event.toAccountNumber(), "toAccountNumber");
+        Decimal amount = Decimal.parse(event.amount(), "amount");
+        Decimal balance = Decimal.parse(event.balance(), "balance");
+
+        int size = FIXED_SIZE + stringSize(account) + stringSize(from) + stringSize(to)
+                + decimalSize(amount) + decimalSize(balance);
+        ByteBuffer out = ByteBuffer.allocate(size);
+
+        out.put(VERSION);
+        out.put(typeCode(event.type()));
+        out.put((byte) ((account != null ? HAS_ACCOUNT : 0)
+                | (from != null ? HAS_FROM : 0)
+                | (to != null ? HAS_TO : 0)
+                | (amount != null ? HAS_AMOUNT : 0)
+                | (balance != null ? HAS_BALANCE : 0)));
+        out.putLong(event.eventId().getMostSignificantBits());
+        out.putLong(event.eventId().getLeastSignificantBits());
+        out.putLong(toEpochMicros(event.occurredAt()));
+        putString(out, account);
+        putString(out, from);
+        putString(out, to);
+        putDecimal(out, amount);
+        putDecimal(out, balance);
+        return out.array();
+    }
+
+    //Reads one event starting at the buffer position and leaves the position right after it.
+    //Works on heap and direct buffers without copying the payload first; strings of a heap buffer are decoded
+    //straight from its backing array.
+    public static AccountEvent decode(ByteBuffer in) {
+        try {
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported AccountEvent binary version: " + version);
+            }
+            AccountEventType type = typeOf(in.get());
+            int flags = in.get();
+            UUID eventId = new UUID(in.getLong(), in.getLong());
+            Instant occurredAt = fromEpochMicros(in.getLong());
+            String account = (flags & HAS_ACCOUNT) != 0 ? getString(in) : null;
+            String from = (flags & HAS_FROM) != 0 ? getString(in) : null;
+            String to = (flags & HAS_TO) != 0 ? getString(in) : null;
+            String amount = (flags & HAS_AMOUNT) != 0 ? getDecimal(in) : null;
+            String balance = (flags & HAS_BALANCE) != 0 ? getDecimal(in) : null;
+            return new AccountEvent(eventId, occurredAt, type, account, from, to, amount, balance);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated AccountEvent binary payload", e);
+        }
+    }
+
+    public static boolean isBinary(String contentType) {
+        return CONTENT_TYPE.equals(contentType);
+    }
+
+    private static byte typeCode(AccountEventType type) {
+        return switch (type) {
+            case ACCOUNT_CREATED -> 1;
+            case MONEY_DEPOSITED -> 2;
+            case MONEY_TRANSFERRED -> 3;
+        };
+    }
+
+    private static AccountEventType typeOf(byte code) {
+        return switch (code) {
+            case 1 -> AccountEventType.ACCOUNT_CREATED;
+            case 2 -> AccountEventType.MONEY_DEPOSITED;
+            case 3 -> AccountEventType.MONEY_TRANSFERRED;
+            default -> throw new IllegalArgumentException("Unknown AccountEvent type code: " + code);
+        };
+    }
+
+    private static long toEpochMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    private static Instant fromEpochMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+
+    private static byte[] utf8(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException(field + " is longer than " + MAX_STRING_BYTES + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int stringSize(byte[] bytes) {
+        return bytes == null ? 0 : 1 + bytes.length;
+    }
+
+    private static void putString(ByteBuffer out, byte[] bytes) {
+        if (bytes != null) {
+            out.put((byte) bytes.length);
+            out.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = Byte.toUnsignedInt(in.get());
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(in.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static int decimalSize(Decimal value) {
+        if (value == null) {
+            return 0;
+        }
+        long zigzag = (value.unscaled() << 1) ^ (value.unscaled() >> 63);
+        return 1 + (64 - Long.numberOfLeadingZeros(zigzag | 1) + 6) / 7;
+    }
+
+    private static void putDecimal(ByteBuffer out, Decimal value) {
+        if (value == null) {
+            return;
+        }
+        out.put((byte) value.scale());
+        long zigzag = (value.unscaled() << 1) ^ (value.unscaled() >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.put((byte) zigzag);
+    }
+
+    private static String getDecimal(ByteBuffer in) {
+        int scale = in.get();
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Invalid decimal scale: " + scale);
+        }
+        long zigzag = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (shift > 63) {
+                throw new IllegalArgumentException("Malformed varint");
+            }
+            byte b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        long unscaled = (zigzag >>> 1) ^ -(zigzag & 1);
+        return Decimal.format(unscaled, scale);
+    }
+
+    //plain decimal text <-> unscaled long + scale, same text as BigDecimal.toPlainString() (no BigDecimal here,
+    //contracts stay dependency-free and this is on the hot path of both services)
+    private record Decimal(long unscaled, int scale) {
+
+        static Decimal parse(String text, String field) {
+            if (text == null) {
+                return null;
+            }
+            int length = text.length();
+            int i = 0;
+            boolean negative = false;
+            if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+                negative = text.charAt(0) == '-';
+                i++;
+            }
+            long unscaled = 0;
+            int digits = 0;
+            int scale = -1;
+            for (; i < length; i++) {
+                char c = text.charAt(i);
+                if (c == '.' && scale < 0) {
+                    scale = 0;
+                    continue;
+                }
+                if (c < '0' || c > '9') {
+                    throw new IllegalArgumentException(field + " is not a plain decimal: " + text);
+                }
+                if (scale >= 0 && ++scale > MAX_SCALE) {
+                    throw new IllegalArgumentException(field + " has too many decimals: " + text);
+                }
+                try {
+                    unscaled = Math.addExact(Math.multiplyExact(unscaled, 10), c - '0');
+                } catch (ArithmeticException e) {
+                    throw new IllegalArgumentException(field + " does not fit into a long: " + text);
+                }
+                digits++;
+            }
+            if (digits == 0) {
+                throw new IllegalArgumentException(field + " is not a plain decimal: " + text);
+            }
+            return new Decimal(negative ? -unscaled : unscaled, Math.max(scale, 0));
+        }
+
+        static String format(long unscaled, int scale) {
+            String digits = Long.toString(Math.abs(unscaled));
+            if (unscaled == Long.MIN_VALUE) {
+                digits = digits.substring(1); //Math.abs overflow, the text still starts with '-'
+            }
+            StringBuilder text = new StringBuilder(digits.length() + scale + 3);
+            if (unscaled < 0) {
+                text.append('-');
+            }
+            if (scale == 0) {
+                return text.append(digits).toString();
+            }
+            int integerDigits = digits.length() - scale;
+            if (integerDigits <= 0) {
+                text.append("0.");
+                text.repeat('0', -integerDigits);
+                return text.append(digits).toString();
+            }
+            return text.append(digits, 0, integerDigits).append('.').append(digits, integerDigits, digits.length())
+                    .toString();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.bankdata.contracts.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountEventCodecTest {
+
+    @Test
+    void roundTrip_keepsEveryField_andTruncatesTimeToMicros() {
+        AccountEvent event = new AccountEvent(UUID.randomUUID(), Instant.parse("2026-01-02T03:04:05.123456789Z"),
+                AccountEventType.MONEY_DEPOSITED, "0000000001", null, null, "10.05", "-0.07");
+
+        AccountEvent decoded = AccountEventCodec.decode(ByteBuffer.wrap(AccountEventCodec.encode(event)));
+
+        assertEquals(event.eventId(), decoded.eventId());
+        assertEquals(Instant.parse("2026-01-02T03:04:05.123456Z"), decoded.occurredAt());
+        assertEquals(event.type(), decoded.type());
+        assertEquals("0000000001", decoded.accountNumber());
+        assertNull(decoded.fromAccountNumber());
+        assertNull(decoded.toAccountNumber());
+        assertEquals("10.05", decoded.amount());
+        assertEquals("-0.07", decoded.balance());
+    }
+
+    @Test
+    void decode_readsFromDirectBuffer_atItsPosition() {
+        AccountEvent event = AccountEvent.transferred("0000000001", "0000000002", "123456789.50");
+        byte[] encoded = AccountEventCodec.encode(event);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(encoded.length + 3);
+        direct.put(new byte[]{9, 9, 9}).put(encoded).flip().position(3);
+
+        AccountEvent decoded = AccountEventCodec.decode(direct);
+
+        assertEquals(event.eventId(), decoded.eventId());
+        assertEquals("0000000002", decoded.toAccountNumber());
+        assertEquals("123456789.50", decoded.amount());
+        assertFalse(direct.hasRemaining());
+    }
+
+    @Test
+    void encode_isMuchSmallerThanJson() {
+        byte[] encoded = AccountEventCodec.encode(AccountEvent.created("0000000001", "100.00"));
+
+        assertTrue(encoded.length < 50, "size " + encoded.length);
+    }
+
+    @Test
+    void encode_rejectsValuesTheFormatCannotHold() {
+        assertThrows(IllegalArgumentException.class,
+                () -> AccountEventCodec.encode(AccountEvent.created("0000000001", "1E+3")));
+        assertThrows(IllegalArgumentException.class,
+                () -> AccountEventCodec.encode(AccountEvent.created("0000000001", "99999999999999999999")));
+    }
+
+    @Test
+    void decode_rejectsUnknownVersion_andTruncatedPayload() {
+        byte[] encoded = AccountEventCodec.encode(AccountEvent.created("0000000001", "1.00"));
+
+        byte[] wrongVersion = encoded.clone();
+        wrongVersion[0] = 2;
+        assertThrows(IllegalArgumentException.class, () -> AccountEventCodec.decode(ByteBuffer.wrap(wrongVersion)));
+        assertThrows(IllegalArgumentException.class,
+                () -> AccountEventCodec.decode(ByteBuffer.wrap(encoded, 0, encoded.length - 2)));
+    }
+}
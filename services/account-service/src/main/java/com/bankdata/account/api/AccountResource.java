@@ -2,6 +2,8 @@ package com.bankdata.account.api;
 
 import com.bankdata.account.api.dto.*;
 import com.bankdata.account.application.AccountService;
+import com.bankdata.account.application.HotAccountSerializer;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
@@ -13,16 +15,28 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 @Path("/")
 @Consumes(MediaType.APPLICATION_JSON)
 @Produces(MediaType.APPLICATION_JSON)
 @Tag(name = "Accounts", description = "Account operations: create, deposit, transfer and balance.")
+//Every endpoint blocks (JTA, JDBC, row locks, sometimes a Kafka ack). On a virtual thread a waiting request
+//costs a parked continuation instead of a worker thread, so thousands of requests can wait for the DB while
+//the pool of connections (not the worker pool) is the real limit. quarkus.virtual-threads.enabled=false
+//runs the same code on the worker pool again (see the load test in benchmarks).
+@RunOnVirtualThread
 public class AccountResource {
 
     private final AccountService service;
+    //hot-account mode: queue per account in-process BEFORE the @Transactional call takes a DB connection
+    private final HotAccountSerializer serializer;
 
-    public AccountResource(AccountService service) {
+    public AccountResource(AccountService service, HotAccountSerializer serializer) {
         this.service = service;
+        this.serializer = serializer;
     }
 
     @POST
@@ -46,6 +60,27 @@ public class AccountResource {
         return Response.status(Response.Status.CREATED).entity(created).build();
     }
 
+    @POST
+    @Path("/accounts:bulk")
+    @Operation(
+            summary = "Bulk create accounts",
+            description = "Creates up to 5000 accounts in one transaction (all or nothing). Account numbers are reserved "
+                    + "in a set-based way and rows are inserted as JDBC batches. Response keeps request order."
+    )
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "201",
+                    description = "Accounts created",
+                    content = @Content(schema = @Schema(implementation = BulkCreateAccountsResponse.class))
+            ),
+            @APIResponse(responseCode = "400", description = "Invalid request payload"),
+            @APIResponse(responseCode = "500", description = "Unexpected error")
+    })
+    public Response createBulk(@Valid BulkCreateAccountsRequest req) {
+        BulkCreateAccountsResponse created = service.createBulk(req);
+        return Response.status(Response.Status.CREATED).entity(created).build();
+    }
+
     @POST
     @Path("/accounts/{accountNumber}/deposit")
     @Operation(
@@ -60,10 +95,11 @@ public class AccountResource {
             ),
             @APIResponse(responseCode = "400", description = "Invalid amount"),
             @APIResponse(responseCode = "404", description = "Account not found"),
+            @APIResponse(responseCode = "409", description = "Account busy (hot-account mode queue timeout)"),
             @APIResponse(responseCode = "500", description = "Unexpected error")
     })
     public BalanceResponse deposit(@PathParam("accountNumber") String accountNumber, @Valid DepositRequest req) {
-        return service.deposit(accountNumber, req);
+        return serializer.run(List.of(accountNumber), () -> service.deposit(accountNumber, req));
     }
 
     @POST
@@ -84,7 +120,36 @@ public class AccountResource {
             @APIResponse(responseCode = "500", description = "Unexpected error")
     })
     public TransferResponse transfer(@Valid TransferRequest req) {
-        return service.transfer(req);
+        return serializer.run(
+                Arrays.asList(req.fromAccountNumber(), req.toAccountNumber()),
+                () -> service.transfer(req)
+        );
+    }
+
+    @POST
+    @Path("/accounts/transfers:batch")
+    @Operation(
+            summary = "Batch transfer",
+            description = "Applies many transfers in one transaction. All involved accounts are locked once, in account "
+                    + "number order. mode=ALL_OR_NOTHING (default) rolls back everything if any item fails, "
+                    + "mode=BEST_EFFORT commits the items that succeeded. Max 1000 items."
+    )
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Batch applied (in BEST_EFFORT mode some items may have failed, see results)",
+                    content = @Content(schema = @Schema(implementation = BatchTransferResponse.class))
+            ),
+            @APIResponse(responseCode = "400", description = "Invalid request (empty or too many items)"),
+            @APIResponse(
+                    responseCode = "409",
+                    description = "ALL_OR_NOTHING batch rolled back, see per-item results",
+                    content = @Content(schema = @Schema(implementation = BatchTransferResponse.class))
+            ),
+            @APIResponse(responseCode = "500", description = "Unexpected error")
+    })
+    public BatchTransferResponse transferBatch(@Valid BatchTransferRequest req) {
+        return serializer.run(involvedAccounts(req), () -> service.transferBatch(req));
     }
 
     @GET
@@ -105,4 +170,17 @@ public class AccountResource {
     public BalanceResponse balance(@PathParam("accountNumber") String accountNumber) {
         return service.balance(accountNumber);
     }
-}
\ No newline at end of file
+
+    private static List<String> involvedAccounts(BatchTransferRequest req) {
+        List<String> accounts = new ArrayList<>();
+        if (req.transfers() != null) {
+            for (TransferRequest transfer : req.transfers()) {
+                if (transfer != null) {
+                    accounts.add(transfer.fromAccountNumber());
+                    accounts.add(transfer.toAccountNumber());
+                }
+            }
+        }
+        return accounts;
+    }
+}
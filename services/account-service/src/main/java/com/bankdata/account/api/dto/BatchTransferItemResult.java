@@ -0,0 +1,23 @@
+package com.bankdata.account.api.dto;
+
+import java.math.BigDecimal;
+
+//balances are the ones right after this item was applied (items are applied in request order)
+public record BatchTransferItemResult(
+        int index,
+        Status status,
+        String fromAccountNumber,
+        String toAccountNumber,
+        BigDecimal amount,
+        BigDecimal fromBalance,
+        BigDecimal toBalance,
+        String errorCode,
+        String message
+) {
+    public enum Status {
+        APPLIED,
+        FAILED,
+        //item itself was fine, but the batch was rolled back (ALL_OR_NOTHING)
+        ROLLED_BACK
+    }
+}
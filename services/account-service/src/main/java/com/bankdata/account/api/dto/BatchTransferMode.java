@@ -0,0 +1,8 @@
+package com.bankdata.account.api.dto;
+
+public enum BatchTransferMode {
+    //any failed item rolls back the whole batch
+    ALL_OR_NOTHING,
+    //failed items are skipped, the rest is committed
+    BEST_EFFORT
+}
@@ -0,0 +1,13 @@
+package com.bankdata.account.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+//items are NOT bean-validated one by one: in BEST_EFFORT mode a bad item must fail alone, not the whole request
+public record BatchTransferRequest(
+        BatchTransferMode mode,
+        @NotEmpty @Size(max = 1000) List<TransferRequest> transfers
+) {
+}
@@ -0,0 +1,11 @@
+package com.bankdata.account.api.dto;
+
+import java.util.List;
+
+public record BatchTransferResponse(
+        BatchTransferMode mode,
+        int applied,
+        int failed,
+        List<BatchTransferItemResult> results
+) {
+}
@@ -0,0 +1,12 @@
+package com.bankdata.account.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkCreateAccountsRequest(
+        @NotEmpty @Size(max = 5000) List<@Valid CreateAccountRequest> accounts
+) {
+}
@@ -0,0 +1,7 @@
+package com.bankdata.account.api.dto;
+
+import java.util.List;
+
+//accounts are in request order
+public record BulkCreateAccountsResponse(int created, List<CreateAccountResponse> accounts) {
+}
@@ -0,0 +1,20 @@
+package com.bankdata.account.api.error;
+
+import com.bankdata.account.application.BatchTransferRejectedException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+//per-item results are the useful part here, so the body is the batch response itself, not ApiError
+@Provider
+public class BatchTransferRejectedExceptionMapper implements ExceptionMapper<BatchTransferRejectedException> {
+
+    @Override
+    public Response toResponse(BatchTransferRejectedException exception) {
+        return Response.status(Response.Status.CONFLICT)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(exception.response)
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+package com.bankdata.account.application;
+
+public class AccountBusyException extends RuntimeException {
+    public final String accountNumber;
+
+    public AccountBusyException(String accountNumber) {
+        super("Account is busy, try again later");
+        this.accountNumber = accountNumber;
+    }
+}
@@ -3,39 +3,56 @@ package com.bankdata.account.application;
 import com.bankdata.account.api.dto.*;
 import com.bankdata.account.api.error.BadRequestException;
 import com.bankdata.account.domain.AccountEntity;
-import com.bankdata.account.messaging.AccountEventPublisher;
+import com.bankdata.account.domain.InsufficientFundsException;
+import com.bankdata.account.domain.Money;
+import com.bankdata.account.messaging.AccountEventOutbox;
 import com.bankdata.account.persistence.AccountRepository;
 import com.bankdata.account.support.AccountNumberGenerator;
 import com.bankdata.contracts.events.AccountEvent;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.PersistenceException;
 import jakarta.transaction.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 @ApplicationScoped
 public class AccountService {
     //for unique collisions
     private static final int MAX_GENERATION_ATTEMPTS = 10;
+    private static final int MAX_BATCH_TRANSFERS = 1000;
+    private static final int MAX_BULK_ACCOUNTS = 5000;
+    private static final int MAX_BULK_ATTEMPTS = 3;
 
     private final AccountRepository repository;
     private final AccountNumberGenerator generator;
-    private final AccountEventPublisher eventPublisher;
+    //events go to the outbox table in the same transaction, Kafka is not touched while row locks are held
+    private final AccountEventOutbox outbox;
+    private final BalanceCache balanceCache;
 
     public AccountService(AccountRepository repository,
                           AccountNumberGenerator generator,
-                          AccountEventPublisher eventPublisher) {
+                          AccountEventOutbox outbox,
+                          BalanceCache balanceCache) {
         this.repository = repository;
         this.generator = generator;
-        this.eventPublisher = eventPublisher;
+        this.outbox = outbox;
+        this.balanceCache = balanceCache;
     }
 
     //!! Atomic operations inside.
     @Transactional
     public CreateAccountResponse create(CreateAccountRequest request) {
         //1. Normalizing money. ZERO amount - acceptable. Scale = 2, no rounding.
-        BigDecimal initial = normalizeMoneyAllowZero(
+        Money initial = RequestAmounts.nonNegative(
                 request.initialDeposit() == null ? BigDecimal.ZERO : request.initialDeposit(),
                 "initialDeposit"
         );
@@ -47,7 +64,8 @@ public class AccountService {
         //3. Retry in possible unique collisions
         //TRAP: we cannot make SELECT to check uniqueness (its a race). Must refer to unique costraint in DB
         for(int attempt = 1; attempt <= MAX_GENERATION_ATTEMPTS; attempt++) {
-            String accountNumber = generator.next(); //generator does not promised uniqueness to us :)
+            //generator is collision-free for its own numbers, but rows from the old random generator may still be there
+            String accountNumber = generator.next();
 
             AccountEntity entity = new AccountEntity(
                     accountNumber,
@@ -60,17 +78,19 @@ public class AccountService {
                 //persist and flush makes Hibernate to execute SQL Insert NOW.
                 //Important that we check uniqueness immediately
                 repository.persistAndFlush(entity);
+                balanceCache.invalidateOnCompletion(entity.getAccountNumber());
 
-                eventPublisher.safePublish(
+                outbox.append(
                         AccountEvent.created(
                                 entity.getAccountNumber(),
                                 entity.getBalance().toPlainString()
                         )
                 );
 
-                return new CreateAccountResponse(entity.getAccountNumber(), entity.getBalance());
+                return new CreateAccountResponse(entity.getAccountNumber(), entity.getBalance().toBigDecimal());
             } catch (PersistenceException exception) {
                 if (isUniqueConstraintViolation(exception)) {
+                    generator.recordCollision();
                     continue; //if we are in uniqueness violation - starting new attempt.
                 }
                 //if any other exception - new cycle.
@@ -82,17 +102,111 @@ public class AccountService {
         );
     }
 
+    //Bulk create for migrations/imports: thousands of accounts in ONE transaction.
+    //Account numbers are reserved upfront in a set-based way (see reserveAccountNumbers) and entities are inserted
+    //as JDBC batches. Only a concurrent single create grabbing one of our numbers between check and insert can still
+    //hit the unique constraint - then the whole transaction is retried with fresh numbers.
+    public BulkCreateAccountsResponse createBulk(BulkCreateAccountsRequest request) {
+        List<CreateAccountRequest> items = request.accounts();
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("accounts must not be empty");
+        }
+        if (items.size() > MAX_BULK_ACCOUNTS) {
+            throw new BadRequestException("accounts must contain at most " + MAX_BULK_ACCOUNTS + " items");
+        }
+
+        List<NewAccount> accounts = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            CreateAccountRequest item = items.get(i);
+            String prefix = "accounts[" + i + "].";
+            if (item == null) {
+                throw new BadRequestException("accounts[" + i + "] must not be null");
+            }
+            accounts.add(new NewAccount(
+                    normalizeName(item.firstName(), prefix + "firstName"),
+                    normalizeName(item.lastName(), prefix + "lastName"),
+                    RequestAmounts.nonNegative(
+                            item.initialDeposit() == null ? BigDecimal.ZERO : item.initialDeposit(),
+                            prefix + "initialDeposit"
+                    )
+            ));
+        }
+
+        for (int attempt = 1; attempt <= MAX_BULK_ATTEMPTS; attempt++) {
+            try {
+                return QuarkusTransaction.requiringNew().call(() -> createBulkOnce(accounts));
+            } catch (RuntimeException exception) {
+                if (!isUniqueConstraintViolation(exception)) {
+                    throw exception;
+                }
+            }
+        }
+        throw new IllegalStateException(
+                "Unable to reserve unique account numbers after " + MAX_BULK_ATTEMPTS + " attempts"
+        );
+    }
+
+    private BulkCreateAccountsResponse createBulkOnce(List<NewAccount> accounts) {
+        List<String> numbers = reserveAccountNumbers(accounts.size());
+
+        List<AccountEntity> entities = new ArrayList<>(accounts.size());
+        List<AccountEvent> events = new ArrayList<>(accounts.size());
+        List<CreateAccountResponse> created = new ArrayList<>(accounts.size());
+        for (int i = 0; i < accounts.size(); i++) {
+            NewAccount account = accounts.get(i);
+            AccountEntity entity = new AccountEntity(numbers.get(i), account.firstName(), account.lastName(), account.initial());
+            entities.add(entity);
+            events.add(AccountEvent.created(entity.getAccountNumber(), entity.getBalance().toPlainString()));
+            created.add(new CreateAccountResponse(entity.getAccountNumber(), entity.getBalance().toBigDecimal()));
+        }
+
+        //no balance cache invalidation: brand new accounts cannot be cached yet (misses are not cached)
+        repository.persist(entities);
+        repository.flush();
+        outbox.appendAll(events);
+
+        return new BulkCreateAccountsResponse(created.size(), created);
+    }
+
+    //Collisions are resolved per round, for the whole set at once:
+    //1. generate the missing amount of candidates, duplicates inside the batch are dropped by the Set
+    //2. ONE query (chunked) finds which candidates are already taken in DB, they are dropped too
+    //3. repeat for what is still missing - the generator does not repeat itself, so this is practically always one round
+    private List<String> reserveAccountNumbers(int count) {
+        Set<String> reserved = new LinkedHashSet<>(count * 2);
+        for (int round = 1; reserved.size() < count; round++) {
+            if (round > MAX_GENERATION_ATTEMPTS) {
+                throw new IllegalStateException(
+                        "Unable to generate unique account numbers after " + MAX_GENERATION_ATTEMPTS + " rounds"
+                );
+            }
+            Set<String> candidates = new LinkedHashSet<>();
+            while (candidates.size() < count - reserved.size()) {
+                String candidate = generator.next();
+                if (reserved.contains(candidate) || !candidates.add(candidate)) {
+                    generator.recordCollision();
+                }
+            }
+            Set<String> taken = repository.findExistingAccountNumbers(candidates);
+            generator.recordCollisions(taken.size());
+            candidates.removeAll(taken);
+            reserved.addAll(candidates);
+        }
+        return List.copyOf(reserved);
+    }
+
     @Transactional
     public BalanceResponse deposit(String accountNumber, DepositRequest request) {
         requireNonBlank(accountNumber, "accountNumber");
 
         // deposit amount: must be > 0; scale must be <= 2 without rounding
-        BigDecimal amount = normalizeMoneyPositive(request.amount(), "amount");
+        Money amount = RequestAmounts.positive(request.amount(), "amount");
 
         AccountEntity entity = repository.getForUpdate(accountNumber);
+        balanceCache.invalidateOnCompletion(entity.getAccountNumber());
         entity.deposit(amount);
 
-        eventPublisher.safePublish(
+        outbox.append(
                 AccountEvent.deposited(
                         entity.getAccountNumber(),
                         amount.toPlainString(),
@@ -100,7 +214,7 @@ public class AccountService {
                 )
         );
 
-        return new BalanceResponse(entity.getAccountNumber(), entity.getBalance());
+        return new BalanceResponse(entity.getAccountNumber(), entity.getBalance().toBigDecimal());
     }
 
     @Transactional
@@ -112,7 +226,7 @@ public class AccountService {
             throw new BadRequestException("fromAccountNumber and toAccountNumber must be different");
         }
 
-        BigDecimal amount = normalizeMoneyPositive(request.amount(), "amount");
+        Money amount = RequestAmounts.positive(request.amount(), "amount");
 
         // lock in order to prevent deadlocks: A->B and B-> A
         String firstKey = (fromAcc.compareTo(toAcc) < 0) ? fromAcc : toAcc;
@@ -121,13 +235,16 @@ public class AccountService {
         AccountEntity first = repository.getForUpdate(firstKey);
         AccountEntity second = repository.getForUpdate(secondKey);
 
+        balanceCache.invalidateOnCompletion(firstKey);
+        balanceCache.invalidateOnCompletion(secondKey);
+
         AccountEntity from = fromAcc.equals(first.getAccountNumber()) ? first : second;
         AccountEntity to = fromAcc.equals(first.getAccountNumber()) ? second : first;
 
         from.withdraw(amount);
         to.deposit(amount);
 
-        eventPublisher.safePublish(
+        outbox.append(
                 AccountEvent.transferred(
                         from.getAccountNumber(),
                         to.getAccountNumber(),
@@ -136,21 +253,128 @@ public class AccountService {
         );
 
         return new TransferResponse(
-                from.getAccountNumber(), from.getBalance(),
-                to.getAccountNumber(), to.getBalance()
+                from.getAccountNumber(), from.getBalance().toBigDecimal(),
+                to.getAccountNumber(), to.getBalance().toBigDecimal()
         );
     }
 
 
+    //Many transfers in ONE transaction:
+    //1. validate every item (bad items fail alone)
+    //2. lock ALL involved accounts with one sorted IN (...) PESSIMISTIC_WRITE query - same lock order as single transfers
+    //3. apply items in request order in memory (withdraw checks funds before it changes anything)
+    //4. append all events to the outbox in one go
+    //ALL_OR_NOTHING: any failed item -> exception -> rollback, caller gets per-item results with 409.
     @Transactional
+    public BatchTransferResponse transferBatch(BatchTransferRequest request) {
+        BatchTransferMode mode = request.mode() == null ? BatchTransferMode.ALL_OR_NOTHING : request.mode();
+        List<TransferRequest> items = request.transfers();
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("transfers must not be empty");
+        }
+        if (items.size() > MAX_BATCH_TRANSFERS) {
+            throw new BadRequestException("transfers must contain at most " + MAX_BATCH_TRANSFERS + " items");
+        }
+
+        BatchTransferItemResult[] results = new BatchTransferItemResult[items.size()];
+        ValidTransfer[] valid = new ValidTransfer[items.size()];
+        SortedSet<String> accountNumbers = new TreeSet<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            TransferRequest item = items.get(i);
+            try {
+                if (item == null) {
+                    throw new BadRequestException("transfer must not be null");
+                }
+                String fromAcc = normalizeAccountNumber(item.fromAccountNumber(), "fromAccountNumber");
+                String toAcc = normalizeAccountNumber(item.toAccountNumber(), "toAccountNumber");
+                if (fromAcc.equals(toAcc)) {
+                    throw new BadRequestException("fromAccountNumber and toAccountNumber must be different");
+                }
+                Money amount = RequestAmounts.positive(item.amount(), "amount");
+
+                valid[i] = new ValidTransfer(fromAcc, toAcc, amount);
+                accountNumbers.add(fromAcc);
+                accountNumbers.add(toAcc);
+            } catch (BadRequestException exception) {
+                results[i] = failed(i, item, "BAD_REQUEST", exception.getMessage());
+            }
+        }
+
+        Map<String, AccountEntity> accounts = repository.getAllForUpdate(accountNumbers);
+        accounts.keySet().forEach(balanceCache::invalidateOnCompletion);
+
+        List<AccountEvent> events = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            ValidTransfer transfer = valid[i];
+            if (transfer == null) {
+                continue;
+            }
+            AccountEntity from = accounts.get(transfer.from());
+            AccountEntity to = accounts.get(transfer.to());
+            if (from == null || to == null) {
+                results[i] = failed(i, items.get(i), "ACCOUNT_NOT_FOUND",
+                        "Account not found: " + (from == null ? transfer.from() : transfer.to()));
+                continue;
+            }
+            try {
+                from.withdraw(transfer.amount());
+                to.deposit(transfer.amount());
+            } catch (InsufficientFundsException exception) {
+                results[i] = failed(i, items.get(i), "INSUFFICIENT_FUNDS", exception.getMessage());
+                continue;
+            }
+
+            results[i] = new BatchTransferItemResult(i, BatchTransferItemResult.Status.APPLIED,
+                    from.getAccountNumber(), to.getAccountNumber(), transfer.amount().toBigDecimal(),
+                    from.getBalance().toBigDecimal(), to.getBalance().toBigDecimal(), null, null);
+            events.add(AccountEvent.transferred(from.getAccountNumber(), to.getAccountNumber(),
+                    transfer.amount().toPlainString()));
+        }
+
+        int failedCount = (int) Arrays.stream(results)
+                .filter(result -> result.status() == BatchTransferItemResult.Status.FAILED)
+                .count();
+
+        if (mode == BatchTransferMode.ALL_OR_NOTHING && failedCount > 0) {
+            //nothing is applied - report applied items as rolled back, without balances
+            List<BatchTransferItemResult> rolledBack = Arrays.stream(results)
+                    .map(result -> result.status() != BatchTransferItemResult.Status.APPLIED ? result
+                            : new BatchTransferItemResult(result.index(), BatchTransferItemResult.Status.ROLLED_BACK,
+                            result.fromAccountNumber(), result.toAccountNumber(), result.amount(),
+                            null, null, null, null))
+                    .toList();
+            throw new BatchTransferRejectedException(new BatchTransferResponse(mode, 0, failedCount, rolledBack));
+        }
+
+        outbox.appendAll(events);
+
+        return new BatchTransferResponse(mode, events.size(), failedCount, List.of(results));
+    }
+
+    //no @Transactional: read-through cache first, on a miss a single-column select (no entity, no JTA)
     public BalanceResponse balance(String accountNumber) {
         requireNonBlank(accountNumber, "accountNumber");
-        AccountEntity entity = repository.getByAccountNumber(accountNumber);
-        return new BalanceResponse(entity.getAccountNumber(), entity.getBalance());
+        BigDecimal balance = balanceCache.get(accountNumber, repository::findBalance);
+        return new BalanceResponse(accountNumber, balance);
     }
 
     // ### Helpers
 
+    private static BatchTransferItemResult failed(int index, TransferRequest item, String code, String message) {
+        return new BatchTransferItemResult(index, BatchTransferItemResult.Status.FAILED,
+                item == null ? null : item.fromAccountNumber(),
+                item == null ? null : item.toAccountNumber(),
+                item == null ? null : item.amount(),
+                null, null, code, message);
+    }
+
+    private record NewAccount(String firstName, String lastName, Money initial) {
+    }
+
+    private record ValidTransfer(String from, String to, Money amount) {
+    }
+
     private static String normalizeName(String value, String field) {
         if (value == null) {
             throw new BadRequestException(field + " is required");
@@ -179,35 +403,6 @@ public class AccountService {
         }
     }
 
-    // Normalize money. Not Null, max 2 decimals, no rounding
-    private static BigDecimal normalizeMoneyAllowZero(BigDecimal value, String field) {
-        BigDecimal normalized = normalizeScaleNoRounding(value, field);
-        if (normalized.signum() < 0) {
-            throw new BadRequestException(field + " must be non-negative");
-        }
-        return normalized;
-    }
-
-    private static BigDecimal normalizeMoneyPositive(BigDecimal value, String field) {
-        BigDecimal normalized = normalizeScaleNoRounding(value, field);
-        if (normalized.signum() <= 0) {
-            throw new BadRequestException(field + " must be positive");
-        }
-        return normalized;
-    }
-
-    private static BigDecimal normalizeScaleNoRounding(BigDecimal value, String field) {
-        if (value == null) {
-            throw new BadRequestException(field + " is required");
-        }
-        try {
-            // UNNECESSARY stops silent rounding
-            return value.setScale(2, RoundingMode.UNNECESSARY);
-        } catch (ArithmeticException exception) {
-            throw new BadRequestException(field + " must have max 2 decimal places");
-        }
-    }
-
     private static boolean isUniqueConstraintViolation(Throwable throwable) {
         Throwable current = throwable;
         while (current != null) {
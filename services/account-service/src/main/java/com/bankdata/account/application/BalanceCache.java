@@ -0,0 +1,110 @@
+package com.bankdata.account.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+//Read-through cache for balances, keyed by account number.
+//Rule: a read on this node never returns a balance older than the last write committed on this node.
+//How:
+//1. a write marks its account "in flight" (striped counter) as soon as it has the row lock,
+//   and removes the entry. While in flight, reads bypass the cache and do not populate it.
+//2. after the transaction completes (commit or rollback) the entry is removed again and the mark is cleared.
+//3. every removal bumps a generation counter. A reader that loaded from DB puts its value only if the
+//   generation did not change while it was loading - so a value read before a commit is never cached after it.
+//We invalidate instead of putting the new balance: with two writers, their afterCompletion callbacks may run
+//in any order and a put could leave the older balance in the cache.
+@ApplicationScoped
+public class BalanceCache {
+    private static final int STRIPES = 1024;
+
+    private final boolean enabled;
+    private final Cache<String, BigDecimal> cache;
+    private final TransactionSynchronizationRegistry transactions;
+
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final AtomicIntegerArray inFlightWrites = new AtomicIntegerArray(STRIPES);
+
+    @Inject
+    public BalanceCache(BalanceCacheConfig config, TransactionSynchronizationRegistry transactions, MeterRegistry registry) {
+        this.enabled = config.enabled();
+        this.transactions = transactions;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.maxSize())
+                .expireAfterWrite(config.ttl())
+                .recordStats()
+                .build();
+        //hits, misses, evictions, size
+        CaffeineCacheMetrics.monitor(registry, cache, "account-balance");
+    }
+
+    public BigDecimal get(String accountNumber, Function<String, BigDecimal> loader) {
+        if (!enabled) {
+            return loader.apply(accountNumber);
+        }
+        int stripe = stripe(accountNumber);
+        if (inFlightWrites.get(stripe) > 0) {
+            return loader.apply(accountNumber);
+        }
+
+        BigDecimal cached = cache.getIfPresent(accountNumber);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = generations.get(stripe);
+        BigDecimal loaded = loader.apply(accountNumber);
+
+        //compute() is atomic per key, same as invalidate() - so either the writer sees our value and removes it,
+        //or we see the writer's generation bump and skip the put
+        cache.asMap().compute(accountNumber, (key, current) ->
+                generations.get(stripe) == generation && inFlightWrites.get(stripe) == 0 ? loaded : current
+        );
+        return loaded;
+    }
+
+    //Call inside the writing transaction, after the row lock is taken.
+    public void invalidateOnCompletion(String accountNumber) {
+        if (!enabled) {
+            return;
+        }
+        int stripe = stripe(accountNumber);
+        inFlightWrites.incrementAndGet(stripe);
+        invalidate(accountNumber, stripe);
+
+        transactions.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                //nothing - entry is already gone and the stripe is marked
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                //also on rollback: clears the in-flight mark
+                invalidate(accountNumber, stripe);
+                inFlightWrites.decrementAndGet(stripe);
+            }
+        });
+    }
+
+    private void invalidate(String accountNumber, int stripe) {
+        cache.asMap().compute(accountNumber, (key, current) -> {
+            generations.incrementAndGet(stripe);
+            return null;
+        });
+    }
+
+    private static int stripe(String accountNumber) {
+        return (accountNumber.hashCode() & 0x7fffffff) % STRIPES;
+    }
+}
@@ -0,0 +1,20 @@
+package com.bankdata.account.application;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "account.balance-cache")
+public interface BalanceCacheConfig {
+
+    @WithDefault("true")
+    boolean enabled();
+
+    @WithDefault("100000")
+    long maxSize();
+
+    //writes on OTHER nodes cannot invalidate our entries, ttl bounds how stale they can get
+    @WithDefault("10s")
+    Duration ttl();
+}
@@ -0,0 +1,13 @@
+package com.bankdata.account.application;
+
+import com.bankdata.account.api.dto.BatchTransferResponse;
+
+//ALL_OR_NOTHING batch with at least one failed item. Thrown (not returned) so @Transactional rolls everything back.
+public class BatchTransferRejectedException extends RuntimeException {
+    public final BatchTransferResponse response;
+
+    public BatchTransferRejectedException(BatchTransferResponse response) {
+        super("Batch transfer rejected");
+        this.response = response;
+    }
+}
@@ -0,0 +1,30 @@
+package com.bankdata.account.application;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "account.hot-account")
+public interface HotAccountConfig {
+
+    //off by default: only worth it when a few accounts get most of the writes
+    @WithDefault("false")
+    boolean enabled();
+
+    @WithDefault("64")
+    int stripes();
+
+    //A call whose accounts hash to more stripes than this is not queued in-process at all and goes straight to
+    //the DB row locks. Otherwise one big transfer batch would hold most of the stripes for its whole transaction
+    //and every other writer on the node would queue behind it.
+    //Trade-off: such a batch takes its DB connection right away and waits on the row locks there (the behaviour
+    //without hot-account mode), so a batch that touches a hot account can still wait on a connection.
+    //Lower = fewer stripes held per call, but more calls skip the queue.
+    @WithDefault("8")
+    int maxStripesPerCall();
+
+    //how long a request may queue for its stripe before it is rejected with 409
+    @WithDefault("5s")
+    Duration waitTimeout();
+}
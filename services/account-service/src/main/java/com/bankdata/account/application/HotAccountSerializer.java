@@ -0,0 +1,115 @@
+package com.bankdata.account.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Collection;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+//Hot-account contention mode.
+//Without it, 500 transfers to one merchant account = 500 requests, each holding a DB connection while it waits
+//for the same PESSIMISTIC_WRITE row lock. The Agroal pool drains and unrelated requests stall.
+//With it, requests first queue in-process on a striped lock (stripe = account number hash) and only call the
+//@Transactional service method - i.e. take a DB connection - when it is their turn.
+//Stripes are always acquired in ascending order, so multi-account work (transfer, batch) cannot deadlock here.
+//A call spanning more than maxStripesPerCall stripes (a big batch) skips the stripes, see HotAccountConfig.
+//The DB row lock stays the real guard (other nodes do not see our stripes).
+@ApplicationScoped
+public class HotAccountSerializer {
+
+    private final boolean enabled;
+    private final long waitTimeoutNanos;
+    private final int maxStripesPerCall;
+    private final Counter bypassed;
+    private final ReentrantLock[] locks;
+    private final AtomicInteger[] waiting;
+    private final Timer[] waitTimers;
+
+    @Inject
+    public HotAccountSerializer(HotAccountConfig config, MeterRegistry registry) {
+        this.enabled = config.enabled();
+        this.waitTimeoutNanos = config.waitTimeout().toNanos();
+        this.maxStripesPerCall = config.maxStripesPerCall();
+        this.bypassed = Counter.builder("account.hot_account.bypassed")
+                .description("Calls spanning more than max-stripes-per-call stripes, run without in-process queueing")
+                .register(registry);
+
+        int stripes = enabled ? config.stripes() : 0;
+        this.locks = new ReentrantLock[stripes];
+        this.waiting = new AtomicInteger[stripes];
+        this.waitTimers = new Timer[stripes];
+        for (int i = 0; i < stripes; i++) {
+            //fair: FIFO per stripe, a hot account must not starve anyone
+            locks[i] = new ReentrantLock(true);
+            waiting[i] = new AtomicInteger();
+            String stripe = Integer.toString(i);
+            Gauge.builder("account.hot_account.queue.depth", waiting[i], AtomicInteger::get)
+                    .tag("stripe", stripe)
+                    .register(registry);
+            waitTimers[i] = Timer.builder("account.hot_account.wait")
+                    .tag("stripe", stripe)
+                    .register(registry);
+        }
+    }
+
+    public <T> T run(Collection<String> accountNumbers, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+
+        //stripe -> one account number for error reporting; TreeMap gives sorted, de-duplicated stripes
+        TreeMap<Integer, String> stripes = new TreeMap<>();
+        for (String accountNumber : accountNumbers) {
+            if (accountNumber != null && !accountNumber.isBlank()) {
+                String trimmed = accountNumber.trim();
+                stripes.putIfAbsent(stripe(trimmed), trimmed);
+            }
+        }
+        if (stripes.size() > maxStripesPerCall) {
+            bypassed.increment();
+            return work.get();
+        }
+
+        int acquired = 0;
+        Integer[] order = stripes.keySet().toArray(Integer[]::new);
+        try {
+            for (Integer stripe : order) {
+                acquire(stripe, stripes.get(stripe));
+                acquired++;
+            }
+            return work.get();
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                locks[order[i]].unlock();
+            }
+        }
+    }
+
+    private void acquire(int stripe, String accountNumber) {
+        long started = System.nanoTime();
+        waiting[stripe].incrementAndGet();
+        try {
+            if (!locks[stripe].tryLock(waitTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new AccountBusyException(accountNumber);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new AccountBusyException(accountNumber);
+        } finally {
+            waiting[stripe].decrementAndGet();
+            waitTimers[stripe].record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private int stripe(String accountNumber) {
+        return (accountNumber.hashCode() & 0x7fffffff) % locks.length;
+    }
+}
@@ -0,0 +1,41 @@
+package com.bankdata.account.application;
+
+import com.bankdata.account.api.error.BadRequestException;
+import com.bankdata.account.domain.Money;
+
+import java.math.BigDecimal;
+
+// Normalize request amounts. Not Null, max 2 decimals, no rounding. From here on amounts are long minor units (Money).
+// Static and public so MoneyArithmeticBenchmark measures exactly this code.
+public final class RequestAmounts {
+    private RequestAmounts() {
+    }
+
+    public static Money nonNegative(BigDecimal value, String field) {
+        Money normalized = toMoney(value, field);
+        if (normalized.signum() < 0) {
+            throw new BadRequestException(field + " must be non-negative");
+        }
+        return normalized;
+    }
+
+    public static Money positive(BigDecimal value, String field) {
+        Money normalized = toMoney(value, field);
+        if (normalized.signum() <= 0) {
+            throw new BadRequestException(field + " must be positive");
+        }
+        return normalized;
+    }
+
+    public static Money toMoney(BigDecimal value, String field) {
+        if (value == null) {
+            throw new BadRequestException(field + " is required");
+        }
+        try {
+            // exact: never rounds silently, never overflows silently
+            return Money.of(value);
+        } catch (ArithmeticException exception) {
+            throw new BadRequestException(field + " " + exception.getMessage());
+        }
+    }
+}
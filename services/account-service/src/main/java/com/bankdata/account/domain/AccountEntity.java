@@ -3,7 +3,6 @@ package com.bankdata.account.domain;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 
-import java.math.BigDecimal;
 import java.util.Objects;
 
 
@@ -17,8 +16,11 @@ import java.util.Objects;
         uniqueConstraints = @UniqueConstraint(name = "uq_account_number", columnNames = "account_number")
 )
 public class AccountEntity extends PanacheEntityBase {
+    //SEQUENCE (pooled) instead of IDENTITY: with IDENTITY Hibernate must run every INSERT on its own to get the id,
+    //with a sequence it knows ids upfront and can send INSERTs as a JDBC batch (bulk create)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 100)
     private Long id;
 
     @Column(name = "account_number", nullable = false, updatable = false, length = 32)
@@ -30,25 +32,28 @@ public class AccountEntity extends PanacheEntityBase {
     @Column(name = "last_name", nullable = false, length = 100)
     private String lastName;
 
+    //minor units (cents). The column stays NUMERIC(19,2), the converter only runs on load/flush,
+    //so deposit/withdraw are plain long arithmetic without BigDecimal allocations
+    @Convert(converter = MinorUnitsConverter.class)
     @Column(name = "balance", nullable = false, precision = 19, scale = 2)
-    private BigDecimal balance;
+    private long balance;
 
     protected AccountEntity() {
         //for JPA
     }
 
 
-    public AccountEntity(String accountNumber, String firstName, String lastName, BigDecimal initialBalance) {
+    public AccountEntity(String accountNumber, String firstName, String lastName, Money initialBalance) {
         this.accountNumber = requireNonBlank(accountNumber, "accountNumber");
         this.firstName = requireNonBlank(firstName, "firstName");
         this.lastName = requireNonBlank(lastName, "lastName");
 
-        this.balance = requireNonNull(initialBalance, "initialBalance");
-        if (this.balance.signum() < 0) {
+        requireNonNull(initialBalance, "initialBalance");
+        if (initialBalance.signum() < 0) {
             throw new InvalidAmountException("initialBalance must be >= 0");
         }
 
-        this.balance = initialBalance;
+        this.balance = initialBalance.minorUnits();
     }
 
     public Long getId() {
@@ -67,31 +72,31 @@ public class AccountEntity extends PanacheEntityBase {
         return lastName;
     }
 
-    public BigDecimal getBalance() {
-        return balance;
+    public Money getBalance() {
+        return Money.ofMinor(balance);
     }
 
-    public void deposit(BigDecimal amount) {
+    public void deposit(Money amount) {
         requirePositive(amount, "amount");
-        this.balance = this.balance.add(amount);
+        this.balance = Money.addExact(this.balance, amount.minorUnits());
     }
 
-    public void withdraw(BigDecimal amount) {
+    public void withdraw(Money amount) {
         requirePositive(amount, "amount");
-        if (this.balance.compareTo(amount) < 0) {
-            throw new InsufficientFundsException(this.accountNumber, this.balance, amount);
+        if (this.balance < amount.minorUnits()) {
+            //cold path, BigDecimals are only for the error details
+            throw new InsufficientFundsException(this.accountNumber, getBalance().toBigDecimal(), amount.toBigDecimal());
         }
-        this.balance = this.balance.subtract(amount);
+        this.balance = Money.subtractExact(this.balance, amount.minorUnits());
     }
 
-    private static BigDecimal requireNonNull(BigDecimal value, String field) {
+    private static void requireNonNull(Money value, String field) {
         if (value == null) {
             throw new InvalidAmountException(field + " must not be null");
         }
-        return value;
     }
 
-    private static void requirePositive(BigDecimal value, String field) {
+    private static void requirePositive(Money value, String field) {
         if (value == null) {
             throw new InvalidAmountException(field + " must not be null");
         }
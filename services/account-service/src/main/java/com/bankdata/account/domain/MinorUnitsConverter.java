@@ -0,0 +1,21 @@
+package com.bankdata.account.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+//long minor units in the entity <-> NUMERIC(19,2) in the DB. Only runs on load and flush, not on every operation.
+@Converter
+public class MinorUnitsConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long minorUnits) {
+        return minorUnits == null ? null : BigDecimal.valueOf(minorUnits, Money.SCALE);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal value) {
+        return value == null ? null : Money.of(value).minorUnits();
+    }
+}
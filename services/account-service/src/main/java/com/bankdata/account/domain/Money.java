@@ -0,0 +1,139 @@
+package com.bankdata.account.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+//Money as a long of minor units (cents), scale is always 2 - same as the NUMERIC(19,2) balance column.
+//All arithmetic is exact: anything that would round or overflow a long throws instead.
+//BigDecimal is only used at the edges (REST DTOs, JDBC), the hot path (entity deposit/withdraw) works on longs.
+//
+//Note: long covers +-92 233 720 368 547 758.07, a bit less than NUMERIC(19,2). Not a real limit for balances.
+public record Money(long minorUnits) implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long MINOR_PER_MAJOR = 100;
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    //exact conversion, ArithmeticException if the value has more than 2 decimals or does not fit
+    public static Money of(BigDecimal value) {
+        BigDecimal scaled;
+        try {
+            scaled = value.setScale(SCALE, RoundingMode.UNNECESSARY); //same instance when the scale is already 2
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("must have max 2 decimal places");
+        }
+        try {
+            return ofMinor(scaled.unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("is out of range");
+        }
+    }
+
+    //"12", "12.3", "-12.34" -> minor units without going through BigDecimal
+    public static Money parse(String value) {
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            i++;
+        }
+        long result = 0;
+        int digits = 0;
+        int decimals = -1; //-1 = no '.' seen yet
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Not a money value: " + value);
+            }
+            if (decimals >= 0 && ++decimals > SCALE) {
+                throw new ArithmeticException("must have max 2 decimal places");
+            }
+            result = multiplyAddExact(result, c - '0');
+            digits++;
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Not a money value: " + value);
+        }
+        for (int missing = SCALE - Math.max(decimals, 0); missing > 0; missing--) {
+            result = multiplyAddExact(result, 0);
+        }
+        return ofMinor(negative ? -result : result);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    //same text as toBigDecimal().toPlainString(), e.g. "-0.05", "12.30" - used in event payloads
+    public String toPlainString() {
+        long abs = Math.abs(minorUnits); //Long.MIN_VALUE cannot be produced: every operation is exact
+        long major = abs / MINOR_PER_MAJOR;
+        int minor = (int) (abs % MINOR_PER_MAJOR);
+        StringBuilder text = new StringBuilder(24);
+        if (minorUnits < 0) {
+            text.append('-');
+        }
+        return text.append(major).append('.').append((char) ('0' + minor / 10)).append((char) ('0' + minor % 10))
+                .toString();
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toPlainString();
+    }
+
+    //long helpers for code that keeps minor units in a field (AccountEntity) and should not allocate Money objects
+    public static long addExact(long a, long b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException e) {
+            throw new InvalidAmountException("amount is out of range");
+        }
+    }
+
+    public static long subtractExact(long a, long b) {
+        try {
+            return Math.subtractExact(a, b);
+        } catch (ArithmeticException e) {
+            throw new InvalidAmountException("amount is out of range");
+        }
+    }
+
+    private static long multiplyAddExact(long value, int digit) {
+        try {
+            return Math.addExact(Math.multiplyExact(value, 10), digit);
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("is out of range");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.bankdata.account.messaging;
+
+import com.bankdata.contracts.events.AccountEvent;
+import com.bankdata.contracts.events.AccountEventCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+//One place that decides how an AccountEvent looks on the wire. The outbox stores the encoded bytes,
+//so the relay sends them as they are and never has to serialize again.
+@ApplicationScoped
+public class AccountEventEncoder {
+    private static final Logger LOG = Logger.getLogger(AccountEventEncoder.class);
+
+    private final ObjectMapper objectMapper;
+    private final EventEncoding encoding;
+
+    @Inject
+    public AccountEventEncoder(ObjectMapper objectMapper, PublisherConfig config) {
+        this.objectMapper = objectMapper;
+        this.encoding = config.encoding();
+    }
+
+    public EncodedEvent encode(AccountEvent event) {
+        if (encoding == EventEncoding.BINARY) {
+            try {
+                return new EncodedEvent(partitionKey(event), AccountEventCodec.CONTENT_TYPE, AccountEventCodec.encode(event));
+            } catch (IllegalArgumentException exception) {
+                //consumers read both formats, so JSON is always a safe fallback
+                LOG.debugf("AccountEvent does not fit the binary format, sending JSON. eventId=%s reason=%s",
+                        event.eventId(), exception.getMessage());
+            }
+        }
+        return new EncodedEvent(partitionKey(event), AccountEventCodec.JSON_CONTENT_TYPE, toJson(event));
+    }
+
+    //The account the event is about. A transfer touches two accounts but a record has one key: it goes with the
+    //sender, so the debits of one account are always seen in order (the receiver's credits may interleave
+    //with its own events from another partition).
+    static String partitionKey(AccountEvent event) {
+        return event.fromAccountNumber() != null ? event.fromAccountNumber() : event.accountNumber();
+    }
+
+    private byte[] toJson(AccountEvent event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize AccountEvent to JSON", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.bankdata.account.messaging;
+
+import com.bankdata.account.persistence.OutboxEventEntity;
+import com.bankdata.account.persistence.OutboxEventRepository;
+import com.bankdata.contracts.events.AccountEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.util.List;
+
+//Write side of the transactional outbox.
+//AccountService calls append() while it still holds account row locks - this is just one more INSERT
+//in the same transaction, no Kafka involved. So lock hold time does not depend on the broker anymore,
+//and a rolled back transaction also rolls back its events.
+@ApplicationScoped
+public class AccountEventOutbox {
+
+    private final OutboxEventRepository repository;
+    private final AccountEventEncoder encoder;
+
+    @Inject
+    public AccountEventOutbox(OutboxEventRepository repository, AccountEventEncoder encoder) {
+        this.repository = repository;
+        this.encoder = encoder;
+    }
+
+    //MANDATORY: appending outside of a business transaction would defeat the whole idea
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void append(AccountEvent event) {
+        repository.persist(toEntity(event));
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void appendAll(List<AccountEvent> events) {
+        repository.persist(events.stream().map(this::toEntity));
+    }
+
+    //encoded once here, in the final wire format - the relay only copies bytes to Kafka
+    private OutboxEventEntity toEntity(AccountEvent event) {
+        EncodedEvent encoded = encoder.encode(event);
+        return new OutboxEventEntity(event.eventId(), event.occurredAt(), encoded.key(), encoded.contentType(), encoded.payload());
+    }
+}
@@ -1,47 +1,74 @@
 package com.bankdata.account.messaging;
 
-import com.bankdata.contracts.events.AccountEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.bankdata.contracts.events.AccountEventCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
 import io.smallrye.reactive.messaging.MutinyEmitter;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.eclipse.microprofile.reactive.messaging.Channel;
-import org.jboss.logging.Logger;
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @ApplicationScoped
 public class AccountEventPublisher {
-    private static final Logger LOG = Logger.getLogger(AccountEventPublisher.class);
+    private final MutinyEmitter<byte[]> emitter;
 
-    private final MutinyEmitter<String> emitter;
-    private final ObjectMapper objectMapper;
+    //only created in PIPELINED mode
+    private final BatchingEventSender<EncodedEvent> sender;
 
     @Inject
-    public AccountEventPublisher(@Channel("words-out") MutinyEmitter<String> emitter,
-                                 ObjectMapper objectMapper) {
+    public AccountEventPublisher(@Channel("words-out") MutinyEmitter<byte[]> emitter,
+                                 PublisherConfig config,
+                                 MeterRegistry registry) {
         this.emitter = emitter;
-        this.objectMapper = objectMapper;
+        this.sender = config.mode() == PublishMode.PIPELINED
+                ? new BatchingEventSender<>(this::send, config, registry)
+                : null;
     }
 
-    public void publish(AccountEvent event) {
-        String json = toJson(event);
-
-        emitter.send(json).await().indefinitely();
+    //Sends already encoded events (from the outbox) without waiting for acks one by one.
+    //Returns one future per event, in the same order, so the caller can tell exactly what was acked.
+    //In PIPELINED mode an event rejected by backpressure gets an already failed future.
+    //No ordering between the events is kept here; OutboxRelay never passes two events of one key at once.
+    public List<CompletableFuture<Void>> submitAll(List<EncodedEvent> events) {
+        List<CompletableFuture<Void>> acks = new ArrayList<>(events.size());
+        for (EncodedEvent event : events) {
+            if (sender == null) {
+                acks.add(send(event).subscribeAsCompletionStage());
+                continue;
+            }
+            try {
+                acks.add(sender.submit(event));
+            } catch (PublishBackpressureException exception) {
+                acks.add(CompletableFuture.failedFuture(exception));
+            }
+        }
+        return acks;
     }
 
-    public void safePublish(AccountEvent event) {
-        try {
-            publish(event);
-        } catch (Exception exception) {
-            LOG.warnf(exception, "Failed to publish AccountEvent. eventId=%s type=%s", event.eventId(), event.type());
+    @PreDestroy
+    void close() {
+        if (sender != null) {
+            sender.close();
         }
     }
 
-    private String toJson(AccountEvent event) {
-        try {
-            return objectMapper.writeValueAsString(event);
-        } catch (JsonProcessingException e) {
-            throw new IllegalStateException("Failed to serialize AccountEvent to JSON", e);
-        }
+    //content-type header tells the consumer which decoder to use, the key picks the partition
+    private Uni<Void> send(EncodedEvent event) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(AccountEventCodec.CONTENT_TYPE_HEADER, event.contentType().getBytes(StandardCharsets.US_ASCII));
+        return emitter.sendMessage(Message.of(event.payload())
+                .addMetadata(OutgoingKafkaRecordMetadata.<String>builder()
+                        .withKey(event.key())
+                        .withHeaders(headers)
+                        .build()));
     }
-}
\ No newline at end of file
+}
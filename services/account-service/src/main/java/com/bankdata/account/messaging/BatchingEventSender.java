@@ -0,0 +1,150 @@
+package com.bankdata.account.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Uni;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+//Pipelined sender used by AccountEventPublisher in PIPELINED mode.
+//1. submit() puts a payload into a bounded buffer and returns a future - the caller does not wait for the ack
+//2. one drainer thread takes up to batchSize payloads and sends them together
+//3. up to maxInFlightBatches batches may wait for acks at the same time (semaphore), so the broker
+//   round trip of one batch overlaps with sending the next ones
+//4. when the buffer is full, submit() blocks for offerTimeout and then throws - that is our backpressure
+final class BatchingEventSender<T> implements AutoCloseable {
+    private static final Logger LOG = Logger.getLogger(BatchingEventSender.class);
+
+    private final Function<T, Uni<Void>> send;
+    private final BlockingQueue<Pending<T>> buffer;
+    private final Semaphore inFlight;
+    private final int batchSize;
+    private final long offerTimeoutNanos;
+
+    private final Timer batchAckLatency;
+    private final Counter rejected;
+
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    BatchingEventSender(Function<T, Uni<Void>> send, PublisherConfig config, MeterRegistry registry) {
+        this.send = send;
+        this.buffer = new ArrayBlockingQueue<>(config.bufferSize());
+        this.inFlight = new Semaphore(config.maxInFlightBatches());
+        this.batchSize = config.batchSize();
+        this.offerTimeoutNanos = config.offerTimeout().toNanos();
+
+        this.batchAckLatency = Timer.builder("account.events.publish.batch.ack")
+                .description("Time from sending a batch until all its events are acked by Kafka")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.rejected = Counter.builder("account.events.publish.rejected")
+                .description("Events rejected because the publish buffer was full")
+                .register(registry);
+        registry.gauge("account.events.publish.buffered", buffer, BlockingQueue::size);
+
+        this.drainer = Thread.ofPlatform()
+                .name("account-event-sender")
+                .daemon()
+                .start(this::drainLoop);
+    }
+
+    CompletableFuture<Void> submit(T payload) {
+        Pending<T> pending = new Pending<>(payload, new CompletableFuture<>());
+        boolean accepted;
+        try {
+            accepted = running && buffer.offer(pending, offerTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new PublishBackpressureException("Interrupted while waiting for publish buffer");
+        }
+        if (!accepted) {
+            rejected.increment();
+            throw new PublishBackpressureException("Publish buffer is full (" + buffer.size() + " events)");
+        }
+        return pending.ack();
+    }
+
+    int buffered() {
+        return buffer.size();
+    }
+
+    private void drainLoop() {
+        List<Pending<T>> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                Pending<T> first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+
+                //waits here if too many batches are not acked yet
+                inFlight.acquire();
+                sendBatch(List.copyOf(batch));
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                batch.forEach(p -> p.ack().completeExceptionally(exception));
+                return;
+            } catch (RuntimeException exception) {
+                LOG.warnf(exception, "Failed to send batch of %d events", batch.size());
+                batch.forEach(p -> p.ack().completeExceptionally(exception));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    //the permit taken by the drainer is given back only by the whenComplete below, so it is attached in a finally
+    //and a send that throws (instead of failing its Uni) still completes its ack - otherwise the permit would leak
+    //and the sender would stall after maxInFlightBatches such failures
+    private void sendBatch(List<Pending<T>> batch) {
+        long started = System.nanoTime();
+        try {
+            for (Pending<T> pending : batch) {
+                try {
+                    send.apply(pending.payload()).subscribe().with(
+                            ignored -> pending.ack().complete(null),
+                            failure -> pending.ack().completeExceptionally(failure)
+                    );
+                } catch (RuntimeException exception) {
+                    pending.ack().completeExceptionally(exception);
+                }
+            }
+        } finally {
+            CompletableFuture.allOf(batch.stream().map(Pending::ack).toArray(CompletableFuture[]::new))
+                    .whenComplete((ignored, failure) -> {
+                        inFlight.release();
+                        batchAckLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    });
+        }
+    }
+
+    @Override
+    public void close() {
+        //stop accepting, let the drainer flush what is already buffered
+        running = false;
+        try {
+            drainer.join(5_000);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        //broker is stuck and acks never come - do not keep the thread hanging on the semaphore
+        if (drainer.isAlive()) {
+            drainer.interrupt();
+        }
+    }
+
+    private record Pending<T>(T payload, CompletableFuture<Void> ack) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.bankdata.account.messaging;
+
+//payload exactly as it goes to Kafka, contentType goes into the content-type record header.
+//key = Kafka record key (account number), so all events of one account land in one partition, in order
+public record EncodedEvent(String key, String contentType, byte[] payload) {
+}
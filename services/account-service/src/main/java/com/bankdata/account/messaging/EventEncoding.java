@@ -0,0 +1,8 @@
+package com.bankdata.account.messaging;
+
+public enum EventEncoding {
+    //Jackson JSON, readable in any Kafka tool
+    JSON,
+    //AccountEventCodec from contracts, ~5x smaller. Falls back to JSON for an event the format cannot hold
+    BINARY
+}
@@ -0,0 +1,28 @@
+package com.bankdata.account.messaging;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "account.outbox")
+public interface OutboxConfig {
+
+    //max rows taken from the outbox in one transaction; the publisher splits them into Kafka batches
+    @WithDefault("500")
+    int batchSize();
+
+    //used by the @Scheduled expression on OutboxRelay.drain
+    @WithDefault("1s")
+    Duration pollInterval();
+
+    //how long the relay waits for broker acks of one batch before giving up (rows stay in the outbox)
+    @WithDefault("30s")
+    Duration sendTimeout();
+
+    //timeout of the relay transaction, which waits for those acks before it deletes the rows. Not the global
+    //default-transaction-timeout: it has to outlast sendTimeout, or a slow broker rolls back the delete and every
+    //acked event is sent again. Checked against sendTimeout at startup (OutboxRelay)
+    @WithDefault("60s")
+    Duration transactionTimeout();
+}
@@ -0,0 +1,151 @@
+package com.bankdata.account.messaging;
+
+import com.bankdata.account.persistence.OutboxEventEntity;
+import com.bankdata.account.persistence.OutboxEventRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+//Read side of the transactional outbox: drains committed events to the words-out channel in batches.
+//Delivery is at-least-once: rows are deleted only after Kafka acked the whole batch, so a crash between
+//ack and delete re-sends the batch. That is fine - analytics is idempotent by eventId.
+@ApplicationScoped
+public class OutboxRelay {
+    private static final Logger LOG = Logger.getLogger(OutboxRelay.class);
+    private static final Duration SEND_TO_COMMIT_MARGIN = Duration.ofSeconds(10);
+
+    private final OutboxEventRepository repository;
+    private final AccountEventPublisher publisher;
+    private final OutboxConfig config;
+    private final int transactionTimeoutSeconds;
+
+    @Inject
+    public OutboxRelay(OutboxEventRepository repository, AccountEventPublisher publisher, OutboxConfig config) {
+        this.repository = repository;
+        this.publisher = publisher;
+        this.config = config;
+        //room for locking, deleting and committing after the last ack
+        Duration needed = config.sendTimeout().plus(SEND_TO_COMMIT_MARGIN);
+        if (config.transactionTimeout().compareTo(needed) < 0) {
+            throw new IllegalStateException("account.outbox.transaction-timeout (" + config.transactionTimeout()
+                    + ") must be at least account.outbox.send-timeout + " + SEND_TO_COMMIT_MARGIN.toSeconds() + "s (" + needed + ")");
+        }
+        this.transactionTimeoutSeconds = Math.toIntExact(config.transactionTimeout().toSeconds());
+    }
+
+    //SKIP: if the previous run is still draining, do not start a second one on the same node
+    @Scheduled(every = "${account.outbox.poll-interval:1s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void drain() {
+        try {
+            //keep going while batches come back full - there is a backlog
+            while (relayBatch() == config.batchSize()) {
+                //next batch
+            }
+        } catch (RuntimeException exception) {
+            //rows stay in the outbox, next run will retry them
+            LOG.warnf(exception, "Outbox relay failed, will retry on next run");
+        }
+    }
+
+    //one batch = one transaction: lock rows, publish them in key order (publishInKeyOrder), delete the acked ones.
+    //Rows that were not acked (failure, backpressure, timeout) and the later rows of their key stay in the outbox
+    //for the next run.
+    //Returns the number of rows that were published and deleted.
+    public int relayBatch() {
+        return QuarkusTransaction.requiringNew().timeout(transactionTimeoutSeconds).call(() -> {
+            List<OutboxEventEntity> batch = repository.lockOldest(config.batchSize());
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            List<Integer> acked = publishInKeyOrder(batch.stream()
+                    .map(row -> new EncodedEvent(row.getEventKey(), row.getContentType(), row.getPayload()))
+                    .toList());
+            List<Long> published = acked.stream().map(i -> batch.get(i).getId()).toList();
+            repository.deleteByIds(published);
+
+            if (published.size() < batch.size()) {
+                LOG.warnf("Outbox relay: %d of %d events not acked or held back behind one of their key, will retry",
+                        batch.size() - published.size(), batch.size());
+            } else {
+                LOG.debugf("Outbox relay published %d events", batch.size());
+            }
+            return published.size();
+        });
+    }
+
+    //Sends the events in rounds. A round is the next event of every key whose previous event was acked (events
+    //without a key all go in the first round); it is submitted at once and its acks are awaited. So an event is
+    //never in flight while an earlier event of its key is unacked - with several Kafka batches in flight a later
+    //event could otherwise be delivered before an earlier one fails, and re-sending the earlier one afterwards
+    //does not undo that. A failed or late event stops its key for this batch.
+    //Keys are still pipelined against each other; a key with n events in the batch costs n broker round trips.
+    //All rounds share one sendTimeout. Returns the indexes of the acked events.
+    List<Integer> publishInKeyOrder(List<EncodedEvent> events) {
+        Map<String, Deque<Integer>> pendingByKey = new HashMap<>();
+        List<Integer> round = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            String key = events.get(i).key();
+            if (key == null) {
+                round.add(i);
+                continue;
+            }
+            pendingByKey.computeIfAbsent(key, ignored -> new ArrayDeque<>()).add(i);
+        }
+        for (Deque<Integer> pending : pendingByKey.values()) {
+            round.add(pending.poll());
+        }
+        round.sort(null);
+
+        long deadline = System.nanoTime() + config.sendTimeout().toNanos();
+        List<Integer> acked = new ArrayList<>(events.size());
+        while (!round.isEmpty()) {
+            List<CompletableFuture<Void>> acks = publisher.submitAll(round.stream().map(events::get).toList());
+            awaitQuietly(acks, deadline);
+
+            List<Integer> next = new ArrayList<>();
+            for (int j = 0; j < round.size(); j++) {
+                CompletableFuture<Void> ack = acks.get(j);
+                if (!ack.isDone() || ack.isCompletedExceptionally()) {
+                    continue;
+                }
+                int index = round.get(j);
+                acked.add(index);
+                String key = events.get(index).key();
+                Integer following = key == null ? null : pendingByKey.get(key).poll();
+                if (following != null) {
+                    next.add(following);
+                }
+            }
+            round = System.nanoTime() < deadline ? next : List.of();
+        }
+        acked.sort(null);
+        return acked;
+    }
+
+    //failures are handled per row by the caller, here we only wait (until the deadline) for everything to settle
+    private static void awaitQuietly(List<CompletableFuture<Void>> acks, long deadlineNanos) {
+        try {
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ignored) {
+            //some acks failed or are late - they stay in the outbox
+        }
+    }
+}
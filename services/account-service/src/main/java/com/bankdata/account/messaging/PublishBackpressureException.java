@@ -0,0 +1,8 @@
+package com.bankdata.account.messaging;
+
+//thrown when the publish buffer stays full for longer than the configured offer timeout
+public class PublishBackpressureException extends RuntimeException {
+    public PublishBackpressureException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.bankdata.account.messaging;
+
+public enum PublishMode {
+    //every event goes straight to the emitter, no buffering or batching on our side
+    DIRECT,
+    //sends are buffered, grouped into batches and several batches are kept in flight
+    PIPELINED
+}
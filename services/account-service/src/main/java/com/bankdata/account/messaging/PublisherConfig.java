@@ -0,0 +1,32 @@
+package com.bankdata.account.messaging;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "account.events.publisher")
+public interface PublisherConfig {
+
+    @WithDefault("PIPELINED")
+    PublishMode mode();
+
+    //wire format of AccountEvent, consumers understand both (content-type header)
+    @WithDefault("BINARY")
+    EventEncoding encoding();
+
+    //bounded buffer in front of Kafka. When full, submit() waits offerTimeout and then rejects
+    @WithDefault("10000")
+    int bufferSize();
+
+    //max events sent together as one batch
+    @WithDefault("100")
+    int batchSize();
+
+    //how many batches may wait for acks at the same time
+    @WithDefault("4")
+    int maxInFlightBatches();
+
+    @WithDefault("100ms")
+    Duration offerTimeout();
+}
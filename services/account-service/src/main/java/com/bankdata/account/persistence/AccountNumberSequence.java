@@ -0,0 +1,31 @@
+package com.bankdata.account.persistence;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+//DB sequence behind AccountNumberGenerator. One value = one block of account numbers for one node.
+//Hibernate only creates sequences that some entity id uses, so this one is created here on startup.
+@ApplicationScoped
+public class AccountNumberSequence {
+    private static final String NAME = "account_number_seq";
+
+    @Inject
+    EntityManager em;
+
+    //own transaction: DDL commits implicitly on most DBs, it must not run inside a business transaction
+    void onStart(@Observes StartupEvent event) {
+        QuarkusTransaction.requiringNew().run(() ->
+                em.createNativeQuery("create sequence if not exists " + NAME + " start with 1 increment by 1")
+                        .executeUpdate()
+        );
+    }
+
+    //sequence values are never given out twice, even if the calling transaction rolls back
+    public long nextBlock() {
+        return ((Number) em.createNativeQuery("select next value for " + NAME).getSingleResult()).longValue();
+    }
+}
@@ -2,6 +2,7 @@ package com.bankdata.account.persistence;
 
 import com.bankdata.account.application.AccountNotFoundException;
 import com.bankdata.account.domain.AccountEntity;
+import com.bankdata.account.domain.Money;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -9,8 +10,19 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.NoResultException;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+
 @ApplicationScoped //one entity for the whole application runtime - important. It will reuse in everywhere
 public class AccountRepository implements PanacheRepository<AccountEntity> {
+    //keeps IN (...) lists within what every DB handles well; chunks are taken in sorted order too
+    private static final int LOCK_CHUNK_SIZE = 500;
 
     //like @AutoWired in Spring. Scans for beans, makes dependency graph, sets correct dependencies.
     //EntityManager is not threadsafe, but Quarkus seems to proxy it and works correct in context scope query/transaction
@@ -42,6 +54,51 @@ public class AccountRepository implements PanacheRepository<AccountEntity> {
         }
     }
 
+    //Locks all given accounts with ONE query (per chunk). Rows are locked in account number order, the same global
+    //order single transfers use, so a batch cannot deadlock with another batch or with a single transfer.
+    //Missing accounts are simply absent from the result.
+    public Map<String, AccountEntity> getAllForUpdate(SortedSet<String> accountNumbers) {
+        Map<String, AccountEntity> locked = new HashMap<>(accountNumbers.size() * 2);
+        List<String> sorted = List.copyOf(accountNumbers);
+        for (int from = 0; from < sorted.size(); from += LOCK_CHUNK_SIZE) {
+            List<String> chunk = sorted.subList(from, Math.min(from + LOCK_CHUNK_SIZE, sorted.size()));
+            em.createQuery("from AccountEntity a where a.accountNumber in :ns order by a.accountNumber",
+                            AccountEntity.class)
+                    .setParameter("ns", chunk)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getResultList()
+                    .forEach(account -> locked.put(account.getAccountNumber(), account));
+        }
+        return locked;
+    }
+
+    //set-based uniqueness check for bulk create: which of these numbers are already taken
+    public Set<String> findExistingAccountNumbers(Collection<String> accountNumbers) {
+        Set<String> existing = new HashSet<>();
+        List<String> all = List.copyOf(accountNumbers);
+        for (int from = 0; from < all.size(); from += LOCK_CHUNK_SIZE) {
+            existing.addAll(em.createQuery("select a.accountNumber from AccountEntity a where a.accountNumber in :ns",
+                            String.class)
+                    .setParameter("ns", all.subList(from, Math.min(from + LOCK_CHUNK_SIZE, all.size())))
+                    .getResultList());
+        }
+        return existing;
+    }
+
+    //read-only fast path: selects just the balance column, no entity is hydrated or put into the persistence context.
+    //Works without a transaction.
+    public BigDecimal findBalance(String accountNumber) {
+        try {
+            //balance is mapped as long minor units (MinorUnitsConverter), so the query returns Long
+            Long minorUnits = em.createQuery("select a.balance from AccountEntity a where a.accountNumber = :n", Long.class)
+                    .setParameter("n", accountNumber)
+                    .getSingleResult();
+            return Money.ofMinor(minorUnits).toBigDecimal();
+        } catch (NoResultException e) {
+            throw new AccountNotFoundException(accountNumber);
+        }
+    }
+
     public AccountEntity getByAccountNumber(String accountNumber) {
         return find("accountNumber", accountNumber)
                 .firstResultOptional()
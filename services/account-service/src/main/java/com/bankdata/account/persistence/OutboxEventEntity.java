@@ -0,0 +1,78 @@
+package com.bankdata.account.persistence;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+//Transactional outbox row. It is written in the SAME transaction as the account change,
+//so an event exists here if and only if the change was committed.
+//OutboxRelay drains the table to Kafka and deletes rows after the broker acked them.
+@Entity
+@Table(
+        name = "account_event_outbox",
+        indexes = @Index(name = "idx_outbox_created_at", columnList = "created_at")
+)
+public class OutboxEventEntity extends PanacheEntityBase {
+
+    //pooled sequence, so a batch of events is inserted as one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_event_outbox_seq")
+    @SequenceGenerator(name = "account_event_outbox_seq", sequenceName = "account_event_outbox_seq", allocationSize = 100)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false, updatable = false)
+    private UUID eventId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    //Kafka record key (account number); null for rows written before keys were introduced
+    @Column(name = "event_key", updatable = false, length = 32)
+    private String eventKey;
+
+    //already encoded payload (JSON or binary, see content_type) - relay does not need to know anything about AccountEvent.
+    //Plain VARBINARY instead of a LOB: events are small and LOB handling costs extra round trips on most drivers.
+    @Column(name = "content_type", nullable = false, updatable = false, length = 64)
+    private String contentType;
+
+    @Column(name = "payload", nullable = false, updatable = false, length = 8192)
+    private byte[] payload;
+
+    protected OutboxEventEntity() {
+        //for JPA
+    }
+
+    public OutboxEventEntity(UUID eventId, Instant createdAt, String eventKey, String contentType, byte[] payload) {
+        this.eventId = eventId;
+        this.createdAt = createdAt;
+        this.eventKey = eventKey;
+        this.contentType = contentType;
+        this.payload = payload;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getEventKey() {
+        return eventKey;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bankdata.account.persistence;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+
+import java.util.List;
+
+@ApplicationScoped
+public class OutboxEventRepository implements PanacheRepository<OutboxEventEntity> {
+
+    @Inject
+    EntityManager em;
+
+    //oldest first, so Kafka sees events in roughly the order they were written (ids come from a sequence on persist).
+    //PESSIMISTIC_WRITE keeps a second relay (another node) away from the same rows while we publish them.
+    //These locks are on outbox rows only, account rows are never touched here.
+    public List<OutboxEventEntity> lockOldest(int limit) {
+        return em.createQuery("from OutboxEventEntity o order by o.id", OutboxEventEntity.class)
+                .setMaxResults(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    public long deleteByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return delete("id in ?1", ids);
+    }
+}
@@ -0,0 +1,12 @@
+package com.bankdata.account.support;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "account.number")
+public interface AccountNumberConfig {
+
+    //how many sequence values one node takes from the DB at once
+    @WithDefault("1000")
+    int blockSize();
+}
@@ -1,17 +1,163 @@
 package com.bankdata.account.support;
 
+import com.bankdata.account.persistence.AccountNumberSequence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
-import java.security.SecureRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 
+//Account number = 9 digits + 1 Luhn check digit.
+//The 9 digits are a sequence value scrambled by a fixed permutation of [0, 10^9), so numbers do not look sequential
+//but two different sequence values can never give the same number. Each node takes a block of sequence values from
+//the DB (account_number_seq) and hands them out from memory - one DB round trip per blockSize accounts.
+//
+//Numbers created by the old random generator are not in this scheme, so a collision with an old row is still
+//possible in theory. AccountService keeps its retry on the unique constraint and reports it via recordCollision().
+//
+//!! The round keys below are part of the data format. Changing them breaks the uniqueness guarantee.
 @ApplicationScoped
 public class AccountNumberGenerator {
-    private final SecureRandom random = new SecureRandom();
+    private static final long NUMBER_SPACE = 1_000_000_000L; //9 digits before the check digit
+    private static final int HALF_BITS = 15; //Feistel works on 30 bits = 1_073_741_824 >= NUMBER_SPACE
+    private static final int HALF_MASK = (1 << HALF_BITS) - 1;
+    private static final int[] ROUND_KEYS = {0x5bd1e995, 0x1b873593, 0x27d4eb2f, 0x165667b1};
 
-    //important: SecureRandom does not guarantee uniqueness. On a DB layer constraints we have unique
-    //keys, but in AccountService we have to make retries if we hit unique violations!
+    private final LongSupplier nextBlock;
+    private final long blockSize;
+    private final Counter generated;
+    private final Counter collisions;
+
+    //buffer, next and blockEnd are guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final char[] buffer = new char[10];
+    private long next;
+    private long blockEnd;
+
+    @Inject
+    public AccountNumberGenerator(AccountNumberSequence sequence, AccountNumberConfig config, MeterRegistry registry) {
+        this(sequence::nextBlock, config.blockSize(), registry);
+    }
+
+    public AccountNumberGenerator(LongSupplier nextBlock, int blockSize, MeterRegistry registry) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be > 0");
+        }
+        this.nextBlock = nextBlock;
+        this.blockSize = blockSize;
+        this.generated = Counter.builder("account.number.generated")
+                .description("Account numbers handed out")
+                .register(registry);
+        //collisions / generated = retry rate
+        this.collisions = Counter.builder("account.number.collisions")
+                .description("Generated account numbers that were already taken and had to be retried")
+                .register(registry);
+    }
+
+    //ReentrantLock, not synchronized: a block refill is a DB round trip, and a virtual thread blocking inside
+    //synchronized pins its carrier thread (JDK 21) for the whole round trip
     public String next() {
-        long value = Math.abs(random.nextLong()) % 1_000_000_0000L;
-        return String.format("%010d", value); //making 10 symb string starting with zeroes
+        lock.lock();
+        try {
+            if (next == blockEnd) {
+                long block = nextBlock.getAsLong();
+                long start = block * blockSize;
+                if (block < 0 || start + blockSize > NUMBER_SPACE) {
+                    throw new IllegalStateException("Account number space is exhausted, block=" + block);
+                }
+                next = start;
+                blockEnd = start + blockSize;
+            }
+            long value = permute(next++);
+            generated.increment();
+            return format(value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void recordCollision() {
+        collisions.increment();
+    }
+
+    public void recordCollisions(int count) {
+        if (count > 0) {
+            collisions.increment(count);
+        }
+    }
+
+    //true if the last digit is the Luhn digit of the first nine - used by the tests to verify the format.
+    //Not a request filter: numbers created by the old random generator have no check digit and must stay reachable.
+    static boolean hasValidCheckDigit(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != 10) {
+            return false;
+        }
+        long value = 0;
+        for (int i = 0; i < 9; i++) {
+            char c = accountNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return accountNumber.charAt(9) == (char) ('0' + luhnCheckDigit(value));
+    }
+
+    //4-round Feistel network on 30 bits is a bijection on [0, 2^30). Values >= 10^9 are encrypted again
+    //(cycle walking) until they land in range - this keeps it a bijection on [0, 10^9).
+    static long permute(long value) {
+        long x = value;
+        do {
+            int left = (int) (x >>> HALF_BITS);
+            int right = (int) (x & HALF_MASK);
+            for (int key : ROUND_KEYS) {
+                int newRight = left ^ (round(right, key) & HALF_MASK);
+                left = right;
+                right = newRight;
+            }
+            x = ((long) left << HALF_BITS) | right;
+        } while (x >= NUMBER_SPACE);
+        return x;
+    }
+
+    private static int round(int half, int key) {
+        int h = half * 0x9E3779B1 + key;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    //digits are written right to left into the reused buffer, no String.format / StringBuilder per call
+    private String format(long value) {
+        buffer[9] = (char) ('0' + luhnCheckDigit(value));
+        long rest = value;
+        for (int i = 8; i >= 0; i--) {
+            buffer[i] = (char) ('0' + (rest % 10));
+            rest /= 10;
+        }
+        return new String(buffer);
+    }
+
+    //Luhn over the 9 payload digits: every second digit from the right (starting with the last one) is doubled
+    private static int luhnCheckDigit(long value) {
+        int sum = 0;
+        boolean doubleIt = true;
+        long rest = value;
+        for (int i = 0; i < 9; i++) {
+            int digit = (int) (rest % 10);
+            rest /= 10;
+            if (doubleIt) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
     }
 }
@@ -1,8 +1,11 @@
 package com.bankdata.account.support;
 
+import com.bankdata.account.application.AccountBusyException;
 import com.bankdata.account.application.AccountNotFoundException;
 import com.bankdata.account.domain.InsufficientFundsException;
 import com.bankdata.account.domain.InvalidAmountException;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
@@ -28,6 +31,17 @@ public class ApiExceptionMapper implements ExceptionMapper<RuntimeException> {
                     )))
                     .build();
         }
+        if (exception instanceof AccountBusyException e) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(new ApiError("ACCOUNT_BUSY", exception.getMessage(), Map.of("accountNumber", e.accountNumber)))
+                    .build();
+        }
+        if (isLockTimeout(exception)) {
+            //row lock not granted in time (LOCK_TIMEOUT): the account is busy, the client may retry
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(new ApiError("LOCK_TIMEOUT", "Account is locked by another operation, retry later", Map.of()))
+                    .build();
+        }
         if (exception instanceof InvalidAmountException) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity(new ApiError("INVALID_AMOUNT", exception.getMessage(), Map.of()))
@@ -43,4 +57,15 @@ public class ApiExceptionMapper implements ExceptionMapper<RuntimeException> {
                 .entity(new ApiError("INTERNAL_ERROR", "Unexpected error", Map.of()))
                 .build();
     }
+
+    private static boolean isLockTimeout(Throwable throwable) {
+        for (Throwable cur = throwable; cur != null; cur = cur.getCause()) {
+            if (cur instanceof PessimisticLockException
+                    || cur instanceof LockTimeoutException
+                    || cur instanceof org.hibernate.PessimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.bankdata.account.api;
 
+import com.bankdata.account.api.dto.BatchTransferMode;
+import com.bankdata.account.api.dto.BatchTransferRequest;
+import com.bankdata.account.api.dto.BulkCreateAccountsRequest;
 import com.bankdata.account.api.dto.CreateAccountRequest;
 import com.bankdata.account.api.dto.DepositRequest;
 import com.bankdata.account.api.dto.TransferRequest;
@@ -7,12 +10,17 @@ import com.bankdata.account.messaging.AccountEventPublisher;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -22,6 +30,15 @@ class AccountResourceIntegrationTest {
     @InjectMock
     AccountEventPublisher eventPublisher;
 
+    @BeforeEach
+    void ackEverything() {
+        //outbox relay deletes only acked rows, so the mock has to ack every payload it gets
+        when(eventPublisher.submitAll(anyList())).thenAnswer(invocation -> {
+            List<String> payloads = invocation.getArgument(0);
+            return payloads.stream().map(p -> CompletableFuture.<Void>completedFuture(null)).toList();
+        });
+    }
+
     @Test
     void health_isOk() {
         given()
@@ -46,7 +63,7 @@ class AccountResourceIntegrationTest {
                 .body("accountNumber", not(emptyOrNullString()))
                 .body("balance", equalTo(10.00f));
 
-        verify(eventPublisher, atLeastOnce()).safePublish(any());
+        verify(eventPublisher, timeout(5000).atLeastOnce()).submitAll(anyList());
     }
 
     @Test
@@ -65,7 +82,7 @@ class AccountResourceIntegrationTest {
                 .body("accountNumber", equalTo(acc))
                 .body("balance", equalTo(5.00f));
 
-        verify(eventPublisher, atLeastOnce()).safePublish(any());
+        verify(eventPublisher, timeout(5000).atLeastOnce()).submitAll(anyList());
     }
 
     @Test
@@ -87,7 +104,7 @@ class AccountResourceIntegrationTest {
                 .body("toAccountNumber", equalTo(to))
                 .body("toBalance", equalTo(10.00f));
 
-        verify(eventPublisher, atLeastOnce()).safePublish(any());
+        verify(eventPublisher, timeout(5000).atLeastOnce()).submitAll(anyList());
     }
 
     @Test
@@ -103,6 +120,38 @@ class AccountResourceIntegrationTest {
                 .body("balance", equalTo(12.34f));
     }
 
+    @Test
+    void balance_afterDeposit_isNotServedFromStaleCache() {
+        String account = createAccountAndGetNumber(new BigDecimal("1.00"));
+
+        //warm the cache
+        given().when().get("/accounts/{acc}/balance", account).then().statusCode(200).body("balance", equalTo(1.00f));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(new DepositRequest(new BigDecimal("2.00")))
+                .when()
+                .post("/accounts/{acc}/deposit", account)
+                .then()
+                .statusCode(200);
+
+        given()
+                .when()
+                .get("/accounts/{acc}/balance", account)
+                .then()
+                .statusCode(200)
+                .body("balance", equalTo(3.00f));
+    }
+
+    @Test
+    void balance_unknownAccount_returns404() {
+        given()
+                .when()
+                .get("/accounts/{acc}/balance", "9999999999")
+                .then()
+                .statusCode(404);
+    }
+
     @Test
     void transfer_sameAccount_returns400() {
         String account = createAccountAndGetNumber(new BigDecimal("10.00"));
@@ -132,6 +181,106 @@ class AccountResourceIntegrationTest {
     }
 
 
+    @Test
+    void transferBatch_bestEffort_appliesValidItems_andReportsFailedOnes() {
+        String a = createAccountAndGetNumber(new BigDecimal("100.00"));
+        String b = createAccountAndGetNumber(new BigDecimal("0.00"));
+        String c = createAccountAndGetNumber(new BigDecimal("5.00"));
+
+        BatchTransferRequest request = new BatchTransferRequest(BatchTransferMode.BEST_EFFORT, List.of(
+                new TransferRequest(a, b, new BigDecimal("10.00")),
+                new TransferRequest(c, b, new BigDecimal("50.00")),
+                new TransferRequest(b, c, new BigDecimal("4.00"))
+        ));
+
+        given()
+                .urlEncodingEnabled(false) //RestAssured would send ':' as %3A
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/accounts/transfers:batch")
+                .then()
+                .statusCode(200)
+                .body("applied", equalTo(2))
+                .body("failed", equalTo(1))
+                .body("results[0].status", equalTo("APPLIED"))
+                .body("results[1].status", equalTo("FAILED"))
+                .body("results[1].errorCode", equalTo("INSUFFICIENT_FUNDS"))
+                .body("results[2].status", equalTo("APPLIED"))
+                .body("results[2].toBalance", equalTo(9.00f));
+
+        given().when().get("/accounts/{acc}/balance", b).then().body("balance", equalTo(6.00f));
+    }
+
+    @Test
+    void transferBatch_allOrNothing_rollsBackEverything_onAnyFailure() {
+        String a = createAccountAndGetNumber(new BigDecimal("100.00"));
+        String b = createAccountAndGetNumber(new BigDecimal("0.00"));
+
+        BatchTransferRequest request = new BatchTransferRequest(BatchTransferMode.ALL_OR_NOTHING, List.of(
+                new TransferRequest(a, b, new BigDecimal("10.00")),
+                new TransferRequest(a, "9999999999", new BigDecimal("1.00"))
+        ));
+
+        given()
+                .urlEncodingEnabled(false) //RestAssured would send ':' as %3A
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/accounts/transfers:batch")
+                .then()
+                .statusCode(409)
+                .body("applied", equalTo(0))
+                .body("results[0].status", equalTo("ROLLED_BACK"))
+                .body("results[1].errorCode", equalTo("ACCOUNT_NOT_FOUND"));
+
+        given().when().get("/accounts/{acc}/balance", a).then().body("balance", equalTo(100.00f));
+    }
+
+    @Test
+    void createBulk_createsAllAccounts_withUniqueNumbers_inRequestOrder() {
+        BulkCreateAccountsRequest request = new BulkCreateAccountsRequest(List.of(
+                new CreateAccountRequest("Ann", "One", new BigDecimal("10.00")),
+                new CreateAccountRequest("Bob", "Two", null),
+                new CreateAccountRequest("Cid", "Three", new BigDecimal("3.50"))
+        ));
+
+        List<String> numbers = given()
+                .urlEncodingEnabled(false) //RestAssured would send ':' as %3A
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/accounts:bulk")
+                .then()
+                .statusCode(201)
+                .body("created", equalTo(3))
+                .body("accounts[0].balance", equalTo(10.00f))
+                .body("accounts[1].balance", equalTo(0.00f))
+                .body("accounts[2].balance", equalTo(3.50f))
+                .extract()
+                .path("accounts.accountNumber");
+
+        assertEquals(3, Set.copyOf(numbers).size());
+        given().when().get("/accounts/{acc}/balance", numbers.get(2)).then().statusCode(200).body("balance", equalTo(3.50f));
+    }
+
+    @Test
+    void createBulk_invalidItem_rejectsWholeRequest() {
+        BulkCreateAccountsRequest request = new BulkCreateAccountsRequest(List.of(
+                new CreateAccountRequest("Ann", "One", new BigDecimal("10.00")),
+                new CreateAccountRequest("Bob", "Two", new BigDecimal("1.001"))
+        ));
+
+        given()
+                .urlEncodingEnabled(false) //RestAssured would send ':' as %3A
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/accounts:bulk")
+                .then()
+                .statusCode(400);
+    }
+
     private String createAccountAndGetNumber(BigDecimal initialDeposit) {
         CreateAccountRequest request = new CreateAccountRequest("Test", "User", initialDeposit);
 
@@ -3,7 +3,8 @@ package com.bankdata.account.application;
 import com.bankdata.account.api.dto.*;
 import com.bankdata.account.api.error.BadRequestException;
 import com.bankdata.account.domain.AccountEntity;
-import com.bankdata.account.messaging.AccountEventPublisher;
+import com.bankdata.account.domain.Money;
+import com.bankdata.account.messaging.AccountEventOutbox;
 import com.bankdata.account.persistence.AccountRepository;
 import com.bankdata.account.support.AccountNumberGenerator;
 import com.bankdata.contracts.events.AccountEvent;
@@ -33,7 +34,10 @@ public class AccountServiceTest {
     AccountNumberGenerator generator;
 
     @Mock
-    AccountEventPublisher eventPublisher;
+    AccountEventOutbox outbox;
+
+    @Mock
+    BalanceCache balanceCache;
 
     @Captor
     ArgumentCaptor<AccountEvent> eventCaptor;
@@ -42,7 +46,7 @@ public class AccountServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new AccountService(repository, generator, eventPublisher);
+        service = new AccountService(repository, generator, outbox, balanceCache);
     }
 
     @Test
@@ -58,7 +62,7 @@ public class AccountServiceTest {
 
         verify(repository, times(1)).persistAndFlush(any(AccountEntity.class));
 
-        verify(eventPublisher, times(1)).safePublish(eventCaptor.capture());
+        verify(outbox, times(1)).append(eventCaptor.capture());
         AccountEvent event = eventCaptor.getValue();
 
         assertEquals("0000000001", event.accountNumber());
@@ -77,7 +81,7 @@ public class AccountServiceTest {
         assertTrue(ex.getMessage().toLowerCase().contains("blank"));
 
         verifyNoInteractions(repository);
-        verifyNoInteractions(eventPublisher);
+        verifyNoInteractions(outbox);
         verifyNoInteractions(generator);
     }
 
@@ -101,12 +105,12 @@ public class AccountServiceTest {
         assertEquals(new BigDecimal("1.00"), response.balance());
 
         verify(repository, times(2)).persistAndFlush(any(AccountEntity.class));
-        verify(eventPublisher, times(1)).safePublish(any(AccountEvent.class));
+        verify(outbox, times(1)).append(any(AccountEvent.class));
     }
 
     @Test
     void deposit_happy_updatesBalance_andPublishesEvent() {
-        AccountEntity entity = new AccountEntity("0000000001", "Denis", "Ignatenko", new BigDecimal("10.00"));
+        AccountEntity entity = new AccountEntity("0000000001", "Denis", "Ignatenko", Money.parse("10.00"));
         when(repository.getForUpdate("0000000001")).thenReturn(entity);
 
         DepositRequest request = new DepositRequest(new BigDecimal("5.00"));
@@ -117,7 +121,7 @@ public class AccountServiceTest {
         assertEquals(new BigDecimal("15.00"), response.balance());
 
         verify(repository, times(1)).getForUpdate("0000000001");
-        verify(eventPublisher, times(1)).safePublish(eventCaptor.capture());
+        verify(outbox, times(1)).append(eventCaptor.capture());
 
         AccountEvent event = eventCaptor.getValue();
         assertEquals("0000000001", event.accountNumber());
@@ -134,7 +138,7 @@ public class AccountServiceTest {
         assertTrue(exception.getMessage().toLowerCase().contains("amount is required"));
 
         verifyNoInteractions(repository);
-        verifyNoInteractions(eventPublisher);
+        verifyNoInteractions(outbox);
     }
 
     @Test
@@ -145,7 +149,7 @@ public class AccountServiceTest {
         assertTrue(exception.getMessage().toLowerCase().contains("must be different"));
 
         verifyNoInteractions(repository);
-        verifyNoInteractions(eventPublisher);
+        verifyNoInteractions(outbox);
     }
 
     @Test
@@ -154,9 +158,9 @@ public class AccountServiceTest {
         String receiverAccountNumber = "0000000001"; // должен быть залочен первым
 
         AccountEntity receiver =
-                new AccountEntity(receiverAccountNumber, "Alice", "Receiver", new BigDecimal("0.00"));
+                new AccountEntity(receiverAccountNumber, "Alice", "Receiver", Money.parse("0.00"));
         AccountEntity sender =
-                new AccountEntity(senderAccountNumber, "Bob", "Sender", new BigDecimal("100.00"));
+                new AccountEntity(senderAccountNumber, "Bob", "Sender", Money.parse("100.00"));
 
         when(repository.getForUpdate(receiverAccountNumber)).thenReturn(receiver);
         when(repository.getForUpdate(senderAccountNumber)).thenReturn(sender);
@@ -175,7 +179,7 @@ public class AccountServiceTest {
         inOrder.verify(repository).getForUpdate(receiverAccountNumber);
         inOrder.verify(repository).getForUpdate(senderAccountNumber);
 
-        verify(eventPublisher, times(1)).safePublish(eventCaptor.capture());
+        verify(outbox, times(1)).append(eventCaptor.capture());
         AccountEvent event = eventCaptor.getValue();
         assertEquals(senderAccountNumber, event.fromAccountNumber());
         assertEquals(receiverAccountNumber, event.toAccountNumber());
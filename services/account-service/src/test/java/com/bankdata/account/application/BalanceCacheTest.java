@@ -0,0 +1,79 @@
+package com.bankdata.account.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceCacheTest {
+
+    @Mock
+    TransactionSynchronizationRegistry transactions;
+
+    BalanceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BalanceCache(config(), transactions, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void get_secondReadIsServedFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("0000000001", n -> { loads.incrementAndGet(); return new BigDecimal("1.00"); });
+        BigDecimal balance = cache.get("0000000001", n -> { loads.incrementAndGet(); return new BigDecimal("1.00"); });
+
+        assertEquals(new BigDecimal("1.00"), balance);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void write_inFlight_bypassesCache_untilCompletion() {
+        cache.get("0000000001", n -> new BigDecimal("1.00"));
+
+        cache.invalidateOnCompletion("0000000001");
+        ArgumentCaptor<Synchronization> sync = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactions).registerInterposedSynchronization(sync.capture());
+
+        //reader during the write sees the pre-commit value, it must not stay cached after the commit
+        assertEquals(new BigDecimal("1.00"), cache.get("0000000001", n -> new BigDecimal("1.00")));
+
+        sync.getValue().afterCompletion(Status.STATUS_COMMITTED);
+
+        assertEquals(new BigDecimal("3.00"), cache.get("0000000001", n -> new BigDecimal("3.00")));
+    }
+
+    private static BalanceCacheConfig config() {
+        return new BalanceCacheConfig() {
+            @Override
+            public boolean enabled() {
+                return true;
+            }
+
+            @Override
+            public long maxSize() {
+                return 100;
+            }
+
+            @Override
+            public Duration ttl() {
+                return Duration.ofMinutes(1);
+            }
+        };
+    }
+}
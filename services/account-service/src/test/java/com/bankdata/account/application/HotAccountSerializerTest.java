@@ -0,0 +1,126 @@
+package com.bankdata.account.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotAccountSerializerTest {
+
+    @Test
+    void run_sameAccount_isSerialized() throws Exception {
+        HotAccountSerializer serializer = new HotAccountSerializer(config(true, Duration.ofSeconds(5)), new SimpleMeterRegistry());
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> futures = pool.invokeAll(Collections.nCopies(50, () ->
+                    serializer.run(List.of("0000000001"), () -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        Thread.onSpinWait();
+                        inside.decrementAndGet();
+                        return null;
+                    })));
+            for (Future<Object> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, maxInside.get());
+    }
+
+    @Test
+    void run_stripeBusyLongerThanTimeout_throwsAccountBusy() throws Exception {
+        HotAccountSerializer serializer = new HotAccountSerializer(config(true, Duration.ofMillis(50)), new SimpleMeterRegistry());
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = Thread.ofPlatform().start(() -> serializer.run(List.of("0000000001"), () -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        holding.await();
+
+        AccountBusyException exception = assertThrows(AccountBusyException.class,
+                () -> serializer.run(List.of(" 0000000001 "), () -> null));
+        assertEquals("0000000001", exception.accountNumber);
+
+        release.countDown();
+        holder.join();
+    }
+
+    @Test
+    void run_callSpanningTooManyStripes_doesNotQueueBehindHeldStripes() throws Exception {
+        HotAccountSerializer serializer = new HotAccountSerializer(config(true, Duration.ofMillis(50)), new SimpleMeterRegistry());
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = Thread.ofPlatform().start(() -> serializer.run(List.of("0000000001"), () -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        holding.await();
+
+        //a big batch including the busy account: more stripes than the cap, so it goes straight to the work
+        List<String> batch = IntStream.rangeClosed(1, 40).mapToObj(i -> String.format("%010d", i)).toList();
+        assertEquals("done", serializer.run(batch, () -> "done"));
+
+        release.countDown();
+        holder.join();
+    }
+
+    @Test
+    void run_disabled_justRunsWork() {
+        HotAccountSerializer serializer = new HotAccountSerializer(config(false, Duration.ofMillis(50)), new SimpleMeterRegistry());
+
+        assertEquals("done", serializer.run(List.of("0000000001"), () -> "done"));
+    }
+
+    private static HotAccountConfig config(boolean enabled, Duration waitTimeout) {
+        return new HotAccountConfig() {
+            @Override
+            public boolean enabled() {
+                return enabled;
+            }
+
+            @Override
+            public int stripes() {
+                return 16;
+            }
+
+            @Override
+            public int maxStripesPerCall() {
+                return 4;
+            }
+
+            @Override
+            public Duration waitTimeout() {
+                return waitTimeout;
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.bankdata.account.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void of_isExact_andRejectsRounding() {
+        assertEquals(1250, Money.of(new BigDecimal("12.5")).minorUnits());
+        assertEquals(-5, Money.of(new BigDecimal("-0.05")).minorUnits());
+        assertEquals(1200, Money.of(new BigDecimal("1.2E+1")).minorUnits());
+
+        ArithmeticException tooPrecise = assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1.001")));
+        assertEquals("must have max 2 decimal places", tooPrecise.getMessage());
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("100000000000000000.00")));
+    }
+
+    @Test
+    void parse_matchesBigDecimal() {
+        for (String text : new String[]{"0", "0.5", "12.30", "-7.01", "+3", "92233720368547758.07"}) {
+            assertEquals(Money.of(new BigDecimal(text)), Money.parse(text), text);
+        }
+        assertThrows(ArithmeticException.class, () -> Money.parse("1.001"));
+        assertThrows(ArithmeticException.class, () -> Money.parse("92233720368547758.08"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1.2.3"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("-"));
+    }
+
+    @Test
+    void toPlainString_matchesBigDecimal() {
+        for (long minor : new long[]{0, 5, -5, 1230, -100, Long.MAX_VALUE, -Long.MAX_VALUE}) {
+            Money money = Money.ofMinor(minor);
+            assertEquals(money.toBigDecimal().toPlainString(), money.toPlainString());
+        }
+    }
+
+    @Test
+    void arithmetic_failsOnOverflow_insteadOfWrapping() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+
+        assertThrows(InvalidAmountException.class, () -> max.plus(Money.ofMinor(1)));
+        assertEquals(Money.parse("0.01"), Money.parse("10.00").minus(Money.parse("9.99")));
+    }
+
+    @Test
+    void entity_withdraw_keepsBalance_whenFundsAreInsufficient() {
+        AccountEntity account = new AccountEntity("0000000001", "A", "B", Money.parse("1.00"));
+
+        InsufficientFundsException exception = assertThrows(InsufficientFundsException.class,
+                () -> account.withdraw(Money.parse("1.01")));
+        assertEquals(new BigDecimal("1.00"), exception.currentBalance);
+        assertEquals(Money.parse("1.00"), account.getBalance());
+    }
+}
@@ -0,0 +1,121 @@
+package com.bankdata.account.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingEventSenderTest {
+
+    @Test
+    void submit_sendsEverything_andCompletesAcks() throws Exception {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        Function<String, Uni<Void>> send = payload -> {
+            sent.add(payload);
+            return Uni.createFrom().voidItem();
+        };
+
+        try (BatchingEventSender<String> sender = new BatchingEventSender<>(send, config(100, 10, 2), new SimpleMeterRegistry())) {
+            List<CompletableFuture<Void>> acks = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                acks.add(sender.submit("event-" + i));
+            }
+
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(50, sent.size());
+        assertEquals("event-0", sent.get(0));
+        assertEquals("event-49", sent.get(49));
+    }
+
+    @Test
+    void submit_bufferFull_rejectsWithBackpressure() {
+        //broker never acks, so the only in-flight slot stays taken and the buffer fills up
+        Function<String, Uni<Void>> send = payload -> Uni.createFrom().nothing();
+
+        try (BatchingEventSender<String> sender = new BatchingEventSender<>(send, config(2, 1, 1), new SimpleMeterRegistry())) {
+            assertThrows(PublishBackpressureException.class, () -> {
+                for (int i = 0; i < 10; i++) {
+                    sender.submit("event-" + i);
+                }
+            });
+        }
+    }
+
+    @Test
+    void submit_sendFails_ackCompletesExceptionally() {
+        Function<String, Uni<Void>> send = payload -> Uni.createFrom().failure(new IllegalStateException("broker down"));
+
+        try (BatchingEventSender<String> sender = new BatchingEventSender<>(send, config(10, 5, 1), new SimpleMeterRegistry())) {
+            CompletableFuture<Void> ack = sender.submit("event");
+
+            Exception exception = assertThrows(Exception.class, () -> ack.get(5, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    void submit_sendThrows_releasesInFlightSlot() throws Exception {
+        //record building fails before a Uni exists; with one in-flight slot a leaked permit would stall the rest
+        Function<String, Uni<Void>> send = payload -> {
+            if (payload.startsWith("bad")) {
+                throw new IllegalArgumentException("cannot build record");
+            }
+            return Uni.createFrom().voidItem();
+        };
+
+        try (BatchingEventSender<String> sender = new BatchingEventSender<>(send, config(10, 1, 1), new SimpleMeterRegistry())) {
+            CompletableFuture<Void> bad = sender.submit("bad-1");
+            sender.submit("bad-2");
+            CompletableFuture<Void> good = sender.submit("good");
+
+            good.get(5, TimeUnit.SECONDS);
+            Exception exception = assertThrows(Exception.class, () -> bad.get(5, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    private static PublisherConfig config(int bufferSize, int batchSize, int maxInFlight) {
+        return new PublisherConfig() {
+            @Override
+            public PublishMode mode() {
+                return PublishMode.PIPELINED;
+            }
+
+            @Override
+            public EventEncoding encoding() {
+                return EventEncoding.BINARY;
+            }
+
+            @Override
+            public int bufferSize() {
+                return bufferSize;
+            }
+
+            @Override
+            public int batchSize() {
+                return batchSize;
+            }
+
+            @Override
+            public int maxInFlightBatches() {
+                return maxInFlight;
+            }
+
+            @Override
+            public Duration offerTimeout() {
+                return Duration.ofMillis(50);
+            }
+        };
+    }
+}
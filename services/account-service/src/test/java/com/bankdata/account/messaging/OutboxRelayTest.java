@@ -0,0 +1,76 @@
+package com.bankdata.account.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    @Test
+    void publishInKeyOrder_laterEventOfAKeyIsNotSent_whenTheEarlierOneFailsAfterOthersWereAcked() {
+        EncodedEvent k1 = event("K");
+        EncodedEvent j1 = event("J");
+        EncodedEvent k2 = event("K");
+        EncodedEvent j2 = event("J");
+
+        //J1 is acked right away, K1 fails a moment later (its Kafka batch failed after the next one succeeded)
+        List<List<EncodedEvent>> submitted = new CopyOnWriteArrayList<>();
+        AccountEventPublisher publisher = mock(AccountEventPublisher.class);
+        when(publisher.submitAll(anyList())).thenAnswer(invocation -> {
+            List<EncodedEvent> round = invocation.getArgument(0);
+            submitted.add(round);
+            return round.stream().map(event -> {
+                if (event != k1) {
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
+                CompletableFuture<Void> ack = new CompletableFuture<>();
+                CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS)
+                        .execute(() -> ack.completeExceptionally(new IllegalStateException("batch failed")));
+                return ack;
+            }).toList();
+        });
+
+        OutboxRelay relay = new OutboxRelay(null, publisher, config());
+        List<Integer> acked = relay.publishInKeyOrder(List.of(k1, j1, k2, j2));
+
+        //K2 never went out: it would have reached Kafka before K1's retry
+        assertEquals(List.of(List.of(k1, j1), List.of(j2)), submitted);
+        assertEquals(List.of(1, 3), acked);
+    }
+
+    private static EncodedEvent event(String key) {
+        return new EncodedEvent(key, "application/json", new byte[0]);
+    }
+
+    private static OutboxConfig config() {
+        return new OutboxConfig() {
+            @Override
+            public int batchSize() {
+                return 10;
+            }
+
+            @Override
+            public Duration pollInterval() {
+                return Duration.ofSeconds(1);
+            }
+
+            @Override
+            public Duration sendTimeout() {
+                return Duration.ofSeconds(5);
+            }
+
+            @Override
+            public Duration transactionTimeout() {
+                return Duration.ofSeconds(60);
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.bankdata.account.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountNumberGeneratorTest {
+
+    @Test
+    void next_neverRepeats_acrossBlocks() {
+        AtomicLong blocks = new AtomicLong();
+        AccountNumberGenerator generator = new AccountNumberGenerator(blocks::incrementAndGet, 1000, new SimpleMeterRegistry());
+
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            String number = generator.next();
+            assertEquals(10, number.length());
+            assertTrue(AccountNumberGenerator.hasValidCheckDigit(number), number);
+            assertTrue(seen.add(number), "duplicate " + number);
+        }
+        assertEquals(200, blocks.get());
+    }
+
+    @Test
+    void permute_isBijection_onSmallRange_andStaysInNumberSpace() {
+        Set<Long> seen = new HashSet<>();
+        for (long value = 0; value < 100_000; value++) {
+            long permuted = AccountNumberGenerator.permute(value);
+            assertTrue(permuted >= 0 && permuted < 1_000_000_000L);
+            assertTrue(seen.add(permuted));
+        }
+        //last values of the space are still mapped inside it (cycle walking)
+        assertTrue(AccountNumberGenerator.permute(999_999_999L) < 1_000_000_000L);
+    }
+
+    @Test
+    void hasValidCheckDigit_catchesSingleDigitTypo() {
+        String number = new AccountNumberGenerator(() -> 7, 10, new SimpleMeterRegistry()).next();
+        char wrong = number.charAt(3) == '9' ? '0' : (char) (number.charAt(3) + 1);
+        String typo = number.substring(0, 3) + wrong + number.substring(4);
+
+        assertFalse(AccountNumberGenerator.hasValidCheckDigit(typo));
+        assertFalse(AccountNumberGenerator.hasValidCheckDigit("12345"));
+    }
+
+    @Test
+    void next_failsWhenNumberSpaceIsExhausted() {
+        AccountNumberGenerator generator = new AccountNumberGenerator(() -> 1_000_000, 1000, new SimpleMeterRegistry());
+
+        assertThrows(IllegalStateException.class, generator::next);
+    }
+}
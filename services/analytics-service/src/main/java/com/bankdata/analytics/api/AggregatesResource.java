@@ -0,0 +1,107 @@
+package com.bankdata.analytics.api;
+
+import com.bankdata.analytics.persistence.AccountTotalsEntity;
+import com.bankdata.analytics.persistence.AggregateRepository;
+import com.bankdata.analytics.persistence.BucketGranularity;
+import com.bankdata.analytics.persistence.TypeBucketTotal;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+//Pre-aggregated numbers maintained by ingestion - reads never touch account_events.
+@Path("/analytics/aggregates")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Analytics", description = "Read-side endpoints for ingested account events.")
+public class AggregatesResource {
+
+    private static final int MAX_BUCKETS = 5000;
+
+    private final AggregateRepository repository;
+
+    @Inject
+    public AggregatesResource(AggregateRepository repository) {
+        this.repository = repository;
+    }
+
+    @GET
+    @Operation(
+            summary = "Get event counts and volume per type",
+            description = "Count and amount sum per event type per time bucket (UTC), ordered by bucketStart. "
+                    + "Empty buckets are not returned."
+    )
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Buckets in [from, to)",
+                    content = @Content(schema = @Schema(implementation = TypeBucketTotal[].class))),
+            @APIResponse(responseCode = "400", description = "Invalid granularity, type or timestamp",
+                    content = @Content(schema = @Schema(implementation = String.class)))
+    })
+    public List<TypeBucketTotal> buckets(
+            @Parameter(description = "MINUTE, HOUR (default) or DAY")
+            @QueryParam("granularity") String granularity,
+            @Parameter(description = "Inclusive lower bound, ISO-8601 instant. Default: 1h/1d/30d before 'to'")
+            @QueryParam("from") String from,
+            @Parameter(description = "Exclusive upper bound, ISO-8601 instant. Default: now")
+            @QueryParam("to") String to,
+            @Parameter(description = "Event type, e.g. MONEY_TRANSFERRED. Default: all types")
+            @QueryParam("type") String type) {
+        BucketGranularity g = parseGranularity(granularity);
+        Instant toInstant = AnalyticsResource.parseInstant(to, "to");
+        if (toInstant == null) {
+            toInstant = Instant.now();
+        }
+        Instant fromInstant = AnalyticsResource.parseInstant(from, "from");
+        if (fromInstant == null) {
+            fromInstant = toInstant.minus(g.defaultRange());
+        }
+        return repository.findTypeBuckets(g, g.bucketStart(fromInstant), toInstant,
+                AnalyticsResource.parseType(type), MAX_BUCKETS);
+    }
+
+    @GET
+    @Path("/accounts/{accountNumber}")
+    @Operation(
+            summary = "Get account totals",
+            description = "Running count and sum of money in (initial deposit, deposits, incoming transfers) "
+                    + "and out (outgoing transfers) of one account."
+    )
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Totals",
+                    content = @Content(schema = @Schema(implementation = AccountTotalsEntity.class))),
+            @APIResponse(responseCode = "404", description = "No events for this account")
+    })
+    public AccountTotalsEntity accountTotals(
+            @Parameter(description = "Account number") @PathParam("accountNumber") String accountNumber) {
+        AccountTotalsEntity totals = repository.findAccountTotals(accountNumber.trim());
+        if (totals == null) {
+            throw new NotFoundException("No events for account " + accountNumber);
+        }
+        return totals;
+    }
+
+    static BucketGranularity parseGranularity(String granularity) {
+        if (granularity == null || granularity.isBlank()) return BucketGranularity.HOUR;
+        try {
+            return BucketGranularity.valueOf(granularity.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("granularity must be one of " + Arrays.toString(BucketGranularity.values()));
+        }
+    }
+}
@@ -1,11 +1,23 @@
 package com.bankdata.analytics.api;
 
-import com.bankdata.analytics.persistence.AccountEventEntity;
+import com.bankdata.analytics.application.EventExportService;
+import com.bankdata.analytics.application.ExportFormat;
+import com.bankdata.analytics.persistence.AccountEventParticipantRepository;
+import com.bankdata.analytics.persistence.AccountEventQuery;
+import com.bankdata.analytics.persistence.AccountEventRepository;
+import com.bankdata.analytics.persistence.AccountEventView;
+import com.bankdata.analytics.persistence.EventLogCursor;
+import com.bankdata.contracts.events.AccountEventType;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -14,7 +26,12 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 
 @Path("/analytics")
 @Produces(MediaType.APPLICATION_JSON)
@@ -24,20 +41,177 @@ public class AnalyticsResource {
     private static final int DEFAULT_LIMIT = 50;
     private static final int MAX_LIMIT = 200;
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final AccountEventRepository repository;
+    private final AccountEventParticipantRepository participants;
+    private final EventExportService exportService;
+
+    @Inject
+    public AnalyticsResource(AccountEventRepository repository,
+                             AccountEventParticipantRepository participants,
+                             EventExportService exportService) {
+        this.repository = repository;
+        this.participants = participants;
+        this.exportService = exportService;
+    }
+
+    //Newest first, keyset paged: the next page is requested with after=<X-Next-Cursor of this page>.
+    //Body stays a plain array, the cursor goes into a header (no header = last page).
     @GET
     @Path("/events")
     @Operation(
             summary = "Get latest events",
-            description = "Returns latest ingested account events ordered by occurredAt DESC."
+            description = "Returns ingested account events ordered by occurredAt DESC, optionally filtered. "
+                    + "If there are more events, X-Next-Cursor header holds the cursor of the next page."
+    )
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "List of events ordered by occurredAt desc",
+                    content = @Content(schema = @Schema(implementation = AccountEventView[].class))),
+            @APIResponse(responseCode = "400", description = "Invalid cursor, type or timestamp",
+                    content = @Content(schema = @Schema(implementation = String.class)))
+    })
+    public Response latest(
+            @Parameter(description = "Max number of items to return. Default=50. Range=1..200.")
+            @QueryParam("limit") Integer limit,
+            @Parameter(description = "X-Next-Cursor of the previous page")
+            @QueryParam("after") String after,
+            @Parameter(description = "Events where this account is the owner, sender or receiver")
+            @QueryParam("accountNumber") String accountNumber,
+            @Parameter(description = "Event type, e.g. MONEY_TRANSFERRED")
+            @QueryParam("type") String type,
+            @Parameter(description = "Inclusive lower bound of occurredAt, ISO-8601 instant")
+            @QueryParam("from") String from,
+            @Parameter(description = "Exclusive upper bound of occurredAt, ISO-8601 instant")
+            @QueryParam("to") String to,
+            @Parameter(description = "Also return the original JSON payload (rawJson). Default=false.")
+            @QueryParam("includeRaw") boolean includeRaw) {
+        int l = normalizeLimit(limit);
+        List<AccountEventView> rows = repository.findPage(new AccountEventQuery(
+                accountNumber == null || accountNumber.isBlank() ? null : accountNumber.trim(),
+                parseType(type),
+                parseInstant(from, "from"),
+                parseInstant(to, "to"),
+                parseCursor(after),
+                l,
+                includeRaw
+        ));
+        return page(rows, l);
+    }
+
+    //"what happened to account X": one range read of the participation index, no OR over three columns
+    @GET
+    @Path("/accounts/{accountNumber}/events")
+    @Operation(
+            summary = "Get account timeline",
+            description = "Events where the account is the owner, sender or receiver, ordered by occurredAt DESC. "
+                    + "If there are more events, X-Next-Cursor header holds the cursor of the next page."
     )
-    @APIResponse(responseCode = "200", description = "List of events ordered by occurredAt desc")
-    public List<AccountEventEntity> latest(
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Timeline page, empty for unknown accounts",
+                    content = @Content(schema = @Schema(implementation = AccountEventView[].class))),
+            @APIResponse(responseCode = "400", description = "Invalid cursor",
+                    content = @Content(schema = @Schema(implementation = String.class)))
+    })
+    public Response timeline(
+            @Parameter(description = "Account number") @PathParam("accountNumber") String accountNumber,
             @Parameter(description = "Max number of items to return. Default=50. Range=1..200.")
-            @QueryParam("limit") Integer limit) {
+            @QueryParam("limit") Integer limit,
+            @Parameter(description = "X-Next-Cursor of the previous page")
+            @QueryParam("after") String after,
+            @Parameter(description = "Also return the original JSON payload (rawJson). Default=false.")
+            @QueryParam("includeRaw") boolean includeRaw) {
         int l = normalizeLimit(limit);
-        return AccountEventEntity.find("order by occurredAt desc")
-                .page(0, l)
-                .list();
+        return page(participants.findTimeline(accountNumber.trim(), parseCursor(after), l, includeRaw), l);
+    }
+
+    //rows has up to limit + 1 items, the extra one means there is a next page
+    private static Response page(List<AccountEventView> rows, int limit) {
+        if (rows.size() <= limit) {
+            return Response.ok(rows).build();
+        }
+        List<AccountEventView> page = rows.subList(0, limit);
+        return Response.ok(page)
+                .header(NEXT_CURSOR_HEADER, page.get(limit - 1).cursor().encode())
+                .build();
+    }
+
+    //Full event log, oldest first, streamed row by row (memory does not grow with the result).
+    //Each row has a cursor; pass the last one received as after= to continue a broken download.
+    @GET
+    @Path("/events/export")
+    @Produces({"application/x-ndjson", "text/csv"})
+    @Operation(
+            summary = "Export the event log",
+            description = "Streams events ordered by (occurredAt, id) as NDJSON or CSV. Every row carries a cursor token to resume from."
+    )
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Event stream",
+                    content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @APIResponse(responseCode = "400", description = "Unknown format, invalid cursor or timestamp",
+                    content = @Content(schema = @Schema(implementation = String.class)))
+    })
+    public Response export(
+            @Parameter(description = "ndjson (default) or csv")
+            @QueryParam("format") String format,
+            @Parameter(description = "Cursor of the last received row, export continues right after it")
+            @QueryParam("after") String after,
+            @Parameter(description = "Inclusive lower bound of occurredAt, ISO-8601 instant")
+            @QueryParam("from") String from,
+            @Parameter(description = "Exclusive upper bound of occurredAt, ISO-8601 instant")
+            @QueryParam("to") String to) {
+        //validate everything before the first byte is written - after that the status code is already 200
+        ExportFormat exportFormat = parseFormat(format);
+        EventLogCursor cursor = parseCursor(after);
+        Instant fromInstant = parseInstant(from, "from");
+        Instant toInstant = parseInstant(to, "to");
+
+        StreamingOutput body = output -> {
+            try {
+                exportService.export(exportFormat, cursor, fromInstant, toInstant, output);
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Event export failed", e);
+            }
+        };
+        return Response.ok(body, exportFormat.mediaType()).build();
+    }
+
+    static ExportFormat parseFormat(String format) {
+        if (format == null || format.isBlank()) return ExportFormat.NDJSON;
+        try {
+            return ExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("format must be ndjson or csv");
+        }
+    }
+
+    static AccountEventType parseType(String type) {
+        if (type == null || type.isBlank()) return null;
+        try {
+            return AccountEventType.valueOf(type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("type must be one of " + Arrays.toString(AccountEventType.values()));
+        }
+    }
+
+    static EventLogCursor parseCursor(String after) {
+        if (after == null || after.isBlank()) return null;
+        try {
+            return EventLogCursor.decode(after.trim());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("after is not a valid cursor");
+        }
+    }
+
+    static Instant parseInstant(String value, String field) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException(field + " must be an ISO-8601 instant, e.g. 2026-01-01T00:00:00Z");
+        }
     }
 
     static int normalizeLimit(Integer limit) {
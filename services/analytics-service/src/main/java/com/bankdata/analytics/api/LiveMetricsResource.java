@@ -0,0 +1,77 @@
+package com.bankdata.analytics.api;
+
+import com.bankdata.analytics.application.LiveMetricsEngine;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.util.List;
+
+//Live numbers from memory (LiveMetricsEngine), nothing here touches the DB.
+@Path("/analytics/live")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Analytics", description = "Read-side endpoints for ingested account events.")
+public class LiveMetricsResource {
+
+    private static final int DEFAULT_RATE_WINDOW = 60;
+    private static final int DEFAULT_TOP_WINDOW = 3600;
+    private static final int DEFAULT_TOP_LIMIT = 10;
+    private static final int MAX_TOP_LIMIT = 100;
+
+    private final LiveMetricsEngine engine;
+
+    @Inject
+    public LiveMetricsResource(LiveMetricsEngine engine) {
+        this.engine = engine;
+    }
+
+    @GET
+    @Operation(summary = "Live event rates", description = "Count, volume and events per second per event type in the last window seconds.")
+    @APIResponse(responseCode = "200", description = "One entry per event type")
+    public List<LiveMetricsEngine.TypeRate> rates(
+            @Parameter(description = "Window in seconds. Default=60, max=analytics.live.window-seconds.")
+            @QueryParam("window") Integer window) {
+        return engine().rates(window(window, DEFAULT_RATE_WINDOW));
+    }
+
+    @GET
+    @Path("/top-accounts")
+    @Operation(summary = "Top accounts by transfer volume",
+            description = "Accounts with the biggest sent + received transfer volume in the last window seconds "
+                    + "(minute resolution). volume may be overestimated by at most maxError.")
+    @APIResponse(responseCode = "200", description = "Accounts ordered by volume desc")
+    public List<LiveMetricsEngine.AccountVolume> topAccounts(
+            @Parameter(description = "Window in seconds. Default=3600, max=analytics.live.window-seconds.")
+            @QueryParam("window") Integer window,
+            @Parameter(description = "Max number of accounts. Default=10. Range=1..100.")
+            @QueryParam("limit") Integer limit) {
+        int l = limit == null ? DEFAULT_TOP_LIMIT : Math.max(1, Math.min(limit, MAX_TOP_LIMIT));
+        return engine().topAccounts(window(window, DEFAULT_TOP_WINDOW), l);
+    }
+
+    private LiveMetricsEngine engine() {
+        if (!engine.enabled()) {
+            throw new NotFoundException("Live metrics are disabled");
+        }
+        return engine;
+    }
+
+    private int window(Integer window, int defaultWindow) {
+        if (window == null) {
+            return Math.min(defaultWindow, engine.maxWindowSeconds());
+        }
+        if (window < 1 || window > engine.maxWindowSeconds()) {
+            throw new BadRequestException("window must be 1.." + engine.maxWindowSeconds() + " seconds");
+        }
+        return window;
+    }
+}
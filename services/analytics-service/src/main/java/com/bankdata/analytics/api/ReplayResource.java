@@ -0,0 +1,65 @@
+package com.bankdata.analytics.api;
+
+import com.bankdata.analytics.messaging.EventReplayService;
+import com.bankdata.analytics.messaging.ReplayProgress;
+import com.bankdata.analytics.messaging.ReplayRequest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+@Path("/analytics/replay")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Replay", description = "Rebuild analytics state from the event topic.")
+public class ReplayResource {
+
+    private final EventReplayService replay;
+
+    @Inject
+    public ReplayResource(EventReplayService replay) {
+        this.replay = replay;
+    }
+
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Operation(
+            summary = "Start a replay",
+            description = "Reads the event topic again (all partitions in parallel) from fromOffset, fromTimestamp "
+                    + "or the beginning, up to the current end. reset=true empties the analytics tables first."
+    )
+    @APIResponses({
+            @APIResponse(responseCode = "202", description = "Replay started",
+                    content = @Content(schema = @Schema(implementation = ReplayProgress.class))),
+            @APIResponse(responseCode = "400", description = "Invalid start position"),
+            @APIResponse(responseCode = "409", description = "A replay is already running")
+    })
+    public Response start(ReplayRequest request) {
+        try {
+            ReplayProgress started = replay.start(request == null ? new ReplayRequest(null, null, false) : request);
+            return Response.accepted(started).build();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ClientErrorException(e.getMessage(), Response.Status.CONFLICT);
+        }
+    }
+
+    @GET
+    @Operation(summary = "Replay progress", description = "Status, per-partition position/end and throughput of the last replay.")
+    @APIResponse(responseCode = "200", description = "Progress")
+    public ReplayProgress progress() {
+        return replay.progress();
+    }
+}
@@ -0,0 +1,193 @@
+package com.bankdata.analytics.application;
+
+import com.bankdata.analytics.persistence.AccountEventEntity;
+import com.bankdata.analytics.persistence.AggregateRepository;
+import com.bankdata.analytics.persistence.BucketGranularity;
+import com.bankdata.contracts.events.AccountEventType;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.jboss.logging.Logger;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+//Keeps event_type_buckets and account_totals up to date. Called by ingestion inside the transaction that inserts
+//the events, and only with events that were really inserted - the eventId unique constraint decides that, so a
+//replayed or redelivered event never counts twice.
+//Deltas are merged in memory first: a batch of 500 transfers in the same minute is 3 bucket updates, not 1500.
+//Every event of a minute hits the same few type buckets, so concurrent ingestion transactions (consumer lanes,
+//replay) would all queue on those rows and hold their locks until commit. Each transaction therefore takes a free
+//shard (analytics.aggregates.shards) and writes only that shard's bucket rows; it gives the shard back when it
+//completes. Account totals are not sharded: lanes are split by account, so they rarely meet there.
+//Rows are updated in one global order (sorted keys): transactions that do meet (a transfer to another lane's
+//account, more transactions than shards) wait for each other's row locks instead of deadlocking.
+@ApplicationScoped
+public class AccountEventAggregator {
+    private static final Logger LOG = Logger.getLogger(AccountEventAggregator.class);
+    private static final String SHARD_RESOURCE = AccountEventAggregator.class.getName() + ".shard";
+
+    private final AggregateRepository repository;
+    private final TransactionSynchronizationRegistry transactions;
+    private final int shards;
+    private final Queue<Integer> freeShards = new ConcurrentLinkedQueue<>();
+
+    @Inject
+    public AccountEventAggregator(AggregateRepository repository,
+                                  TransactionSynchronizationRegistry transactions,
+                                  AggregatesConfig config) {
+        this.repository = repository;
+        this.transactions = transactions;
+        this.shards = Math.max(1, config.shards());
+        for (int shard = 0; shard < shards; shard++) {
+            freeShards.add(shard);
+        }
+    }
+
+    public void apply(Collection<AccountEventEntity> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<BucketKey, Delta> buckets = new TreeMap<>(BucketKey.ORDER);
+        Map<String, AccountDelta> accounts = new TreeMap<>();
+        for (AccountEventEntity event : events) {
+            BigDecimal amount = amount(event);
+            for (BucketGranularity granularity : BucketGranularity.values()) {
+                buckets.computeIfAbsent(
+                        new BucketKey(granularity, granularity.bucketStart(event.occurredAt), event.type),
+                        key -> new Delta()
+                ).add(amount);
+            }
+            switch (event.type) {
+                case ACCOUNT_CREATED, MONEY_DEPOSITED -> account(accounts, event.accountNumber).in(amount, event.occurredAt);
+                case MONEY_TRANSFERRED -> {
+                    account(accounts, event.fromAccountNumber).out(amount, event.occurredAt);
+                    account(accounts, event.toAccountNumber).in(amount, event.occurredAt);
+                }
+            }
+        }
+
+        int shard = shard();
+        try {
+            buckets.forEach((key, delta) ->
+                    repository.addToTypeBucket(shard, key.granularity(), key.bucketStart(), key.type(), delta.count, delta.amount));
+            accounts.forEach((accountNumber, delta) ->
+                    repository.addToAccountTotals(accountNumber, delta.inCount, delta.inAmount,
+                            delta.outCount, delta.outAmount, delta.lastEventAt));
+            repository.flush();
+        } catch (RuntimeException error) {
+            if (isConstraintViolation(error)) {
+                throw new AggregateConflictException(error);
+            }
+            throw error;
+        }
+    }
+
+    public void reset() {
+        repository.deleteAll();
+    }
+
+    //one shard per transaction, held until it commits or rolls back (that is when its row locks go away).
+    //No free shard = more concurrent transactions than shards: share a random one.
+    private int shard() {
+        Integer current = (Integer) transactions.getResource(SHARD_RESOURCE);
+        if (current != null) {
+            return current;
+        }
+        Integer leased = freeShards.poll();
+        int shard = leased != null ? leased : ThreadLocalRandom.current().nextInt(shards);
+        transactions.putResource(SHARD_RESOURCE, shard);
+        if (leased != null) {
+            transactions.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    freeShards.add(leased);
+                }
+            });
+        }
+        return shard;
+    }
+
+    //amount is a decimal string in the contract; a broken one is counted as an event with zero amount
+    private static BigDecimal amount(AccountEventEntity event) {
+        if (event.amount == null) {
+            return BigDecimal.ZERO;
+        }
+        try {
+            return new BigDecimal(event.amount);
+        } catch (NumberFormatException exception) {
+            LOG.warnf("Unparsable amount '%s' in eventId=%s, aggregated as 0", event.amount, event.eventId);
+            return BigDecimal.ZERO;
+        }
+    }
+
+    private static AccountDelta account(Map<String, AccountDelta> accounts, String accountNumber) {
+        if (accountNumber == null || accountNumber.isBlank()) {
+            return new AccountDelta(); //not stored
+        }
+        return accounts.computeIfAbsent(accountNumber, ignored -> new AccountDelta());
+    }
+
+    private static boolean isConstraintViolation(Throwable throwable) {
+        for (Throwable cur = throwable; cur != null; cur = cur.getCause()) {
+            if (cur instanceof org.hibernate.exception.ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record BucketKey(BucketGranularity granularity, Instant bucketStart, AccountEventType type) {
+        static final Comparator<BucketKey> ORDER = Comparator.comparing(BucketKey::granularity)
+                .thenComparing(BucketKey::bucketStart)
+                .thenComparing(BucketKey::type);
+    }
+
+    private static final class Delta {
+        long count;
+        BigDecimal amount = BigDecimal.ZERO;
+
+        void add(BigDecimal value) {
+            count++;
+            amount = amount.add(value);
+        }
+    }
+
+    private static final class AccountDelta {
+        long inCount;
+        BigDecimal inAmount = BigDecimal.ZERO;
+        long outCount;
+        BigDecimal outAmount = BigDecimal.ZERO;
+        Instant lastEventAt;
+
+        void in(BigDecimal amount, Instant at) {
+            inCount++;
+            inAmount = inAmount.add(amount);
+            touch(at);
+        }
+
+        void out(BigDecimal amount, Instant at) {
+            outCount++;
+            outAmount = outAmount.add(amount);
+            touch(at);
+        }
+
+        private void touch(Instant at) {
+            if (lastEventAt == null || at.isAfter(lastEventAt)) {
+                lastEventAt = at;
+            }
+        }
+    }
+}
@@ -1,53 +1,76 @@
 package com.bankdata.analytics.application;
 
 import com.bankdata.analytics.persistence.AccountEventEntity;
+import com.bankdata.analytics.persistence.AccountEventParticipantRepository;
 import com.bankdata.analytics.persistence.AccountEventRepository;
 import com.bankdata.contracts.events.AccountEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.persistence.PersistenceException;
-import jakarta.transaction.Transactional;
 import org.jboss.logging.Logger;
 
-import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
 
 @ApplicationScoped
 public class AccountEventIngestionService {
     private static final Logger LOG = Logger.getLogger(AccountEventIngestionService.class);
+    private static final int MAX_AGGREGATE_ATTEMPTS = 3;
 
     private final ObjectMapper mapper;
     private final AccountEventRepository repository;
+    private final AccountEventParticipantRepository participants;
+    private final AccountEventAggregator aggregator;
+    private final EventIdFilter filter;
+    private final LiveMetricsEngine live;
 
     @Inject
-    public AccountEventIngestionService(ObjectMapper mapper, AccountEventRepository repository) {
+    public AccountEventIngestionService(ObjectMapper mapper,
+                                        AccountEventRepository repository,
+                                        AccountEventParticipantRepository participants,
+                                        AccountEventAggregator aggregator,
+                                        EventIdFilter filter,
+                                        LiveMetricsEngine live) {
         this.mapper = mapper;
         this.repository = repository;
+        this.participants = participants;
+        this.aggregator = aggregator;
+        this.filter = filter;
+        this.live = live;
     }
 
-    @Transactional
+    //single-event path. The dedupe filter is updated only after the commit - otherwise a rolled back insert
+    //would make the filter report the event as SEEN and its redelivery would be dropped.
     public void ingest(String json) {
-        final AccountEvent event = parse(json);
+        final AccountEvent event = ParsedEvent.parseJson(json, mapper);
 
-        if (repository.existsByEventId(event.eventId())) {
+        EventIdFilter.Verdict verdict = check(event.eventId());
+        if (verdict == EventIdFilter.Verdict.SEEN) {
             LOG.debugf("Duplicate AccountEvent ignored: eventId=%s type=%s", event.eventId(), event.type());
             return;
         }
 
-        AccountEventEntity entity = AccountEventEntity.fromContract(event, json);
-
+        AccountEventEntity stored;
         try {
-            repository.persist(entity);
-
-            repository.flush();
-
-        } catch (PersistenceException error) {
+            stored = inTransaction(() -> storeOne(new ParsedEvent(event, json), verdict));
+        } catch (RuntimeException error) {
             if (isUniqueViolation(error)) {
                 LOG.debugf("Duplicate AccountEvent (db constraint) ignored: eventId=%s", event.eventId());
                 return;
             }
             throw error;
         }
+        if (stored == null) {
+            LOG.debugf("Duplicate AccountEvent ignored: eventId=%s type=%s", event.eventId(), event.type());
+            return;
+        }
+        committed(List.of(stored));
 
         LOG.infof("Stored AccountEvent: eventId=%s type=%s occurredAt=%s",
                 event.eventId(),
@@ -56,15 +79,193 @@ public class AccountEventIngestionService {
         );
     }
 
-    private AccountEvent parse(String json) {
+    //Batch path for one Kafka poll:
+    //1. parse + dedupe inside the batch (Kafka may redeliver the same event twice in one poll)
+    //2. in-memory filter drops recently stored ids and clears ids that are definitely new
+    //3. ONE query for the remaining "maybe" eventIds
+    //4. insert the rest (+ their account timeline rows) in ONE transaction, Hibernate sends the INSERTs as a JDBC batch
+    //Returns how many events were actually stored.
+    public int ingestBatch(List<String> payloads) {
+        return ingestEncodedBatch(payloads.stream().map(IncomingEvent::json).toList());
+    }
+
+    //same as ingestBatch, for records that may be JSON or binary (AccountEventCodec) - see the content-type header
+    public int ingestEncodedBatch(List<IncomingEvent> records) {
+        return ingest(records, false);
+    }
+
+    //Replay path: the records are mostly old, stored events the in-memory filter no longer remembers, so its NEW
+    //verdict can't be trusted here. Every id the filter has not SEEN is checked in ONE query for the whole chunk
+    //and only the missing ones are inserted; trusting NEW would hit the unique constraint and fall back to one
+    //transaction per event for the whole chunk.
+    public int replayBatch(List<IncomingEvent> records) {
+        return ingest(records, true);
+    }
+
+    private int ingest(List<IncomingEvent> records, boolean checkAll) {
+        Map<UUID, ParsedEvent> unique = new LinkedHashMap<>(records.size() * 2);
+        for (IncomingEvent record : records) {
+            try {
+                ParsedEvent parsed = ParsedEvent.parse(record, mapper);
+                unique.putIfAbsent(parsed.event().eventId(), parsed);
+            } catch (IllegalArgumentException exception) {
+                //a poison record must not block the whole partition
+                LOG.warnf(exception, "Skipping invalid AccountEvent payload");
+            }
+        }
+
+        Set<UUID> maybeStored = new HashSet<>();
+        int seen = 0;
+        for (var iterator = unique.keySet().iterator(); iterator.hasNext(); ) {
+            UUID eventId = iterator.next();
+            switch (check(eventId)) {
+                case SEEN -> {
+                    iterator.remove();
+                    seen++;
+                }
+                case MAYBE -> maybeStored.add(eventId);
+                case NEW -> {
+                    //no DB lookup needed
+                }
+            }
+        }
+        if (unique.isEmpty()) {
+            LOG.debugf("AccountEvent batch fully deduped in memory: duplicates=%d", seen);
+            return 0;
+        }
+
         try {
-            return mapper.readValue(json, AccountEvent.class);
-        } catch (IOException exception) {
-            throw new IllegalArgumentException("Invalid AccountEvent JSON payload", exception);
+            List<AccountEventEntity> stored = inTransaction(() -> storeNew(unique, maybeStored, checkAll));
+            committed(stored);
+            return stored.size();
+        } catch (RuntimeException error) {
+            if (!isUniqueViolation(error)) {
+                throw error;
+            }
+            //someone else stored one of these events between our check and insert (e.g. a replay, or an old
+            //event the filter no longer covers). Rare, so we just fall back to one transaction per event.
+            LOG.debugf("Unique violation in batch of %d events, falling back to per-event ingestion", unique.size());
+            int stored = 0;
+            for (ParsedEvent parsed : unique.values()) {
+                try {
+                    AccountEventEntity one = inTransaction(() -> storeOne(parsed, EventIdFilter.Verdict.MAYBE));
+                    if (one != null) {
+                        committed(List.of(one));
+                        stored++;
+                    }
+                } catch (RuntimeException oneError) {
+                    if (!isUniqueViolation(oneError)) {
+                        throw oneError;
+                    }
+                    LOG.debugf("Duplicate AccountEvent (db constraint) ignored: eventId=%s", parsed.event().eventId());
+                }
+            }
+            return stored;
+        }
+    }
+
+    //Empties account_events and everything derived from it (replay with reset). The filter is cleared after
+    //the commit, otherwise the replayed events would come back as SEEN and be dropped; the live metrics too,
+    //otherwise the replayed events of the last window would be counted twice.
+    public void resetStore() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            participants.deleteAll();
+            repository.deleteAll();
+            aggregator.reset();
+        });
+        filter.clear();
+        live.reset();
+        LOG.info("Analytics event store reset");
+    }
+
+    //checkAll = look up every id of the batch, not only the filter's "maybe" ones
+    private List<AccountEventEntity> storeNew(Map<UUID, ParsedEvent> unique, Set<UUID> maybeStored, boolean checkAll) {
+        Set<UUID> existing = repository.findExistingEventIds(checkAll ? unique.keySet() : maybeStored);
+        for (UUID eventId : maybeStored) {
+            if (!existing.contains(eventId)) {
+                filter.recordFalsePositive();
+            }
+        }
+        //these are already committed by someone else, safe to remember before our own commit
+        remember(List.copyOf(existing));
+
+        List<AccountEventEntity> entities = unique.values().stream()
+                .filter(parsed -> !existing.contains(parsed.event().eventId()))
+                .map(parsed -> AccountEventEntity.fromContract(parsed.event(), parsed.json()))
+                .toList();
+
+        repository.persist(entities);
+        participants.persistFor(entities);
+        repository.flush();
+        //after the flush: a duplicate event fails above and never reaches the aggregates
+        aggregator.apply(entities);
+
+        LOG.infof("Stored AccountEvent batch: received=%d stored=%d duplicates=%d",
+                unique.size(), entities.size(), existing.size());
+        return entities;
+    }
+
+    //null = already stored
+    private AccountEventEntity storeOne(ParsedEvent parsed, EventIdFilter.Verdict verdict) {
+        if (verdict == EventIdFilter.Verdict.MAYBE) {
+            if (repository.existsByEventId(parsed.event().eventId())) {
+                return null;
+            }
+            filter.recordFalsePositive();
+        }
+        AccountEventEntity entity = AccountEventEntity.fromContract(parsed.event(), parsed.json());
+        repository.persist(entity);
+        participants.persistFor(List.of(entity));
+        repository.flush();
+        aggregator.apply(List.of(entity));
+        return entity;
+    }
+
+    //one ingestion transaction; lost race on a new aggregate row = run it again, the row exists now
+    private <T> T inTransaction(Callable<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return QuarkusTransaction.requiringNew().call(work);
+            } catch (RuntimeException error) {
+                if (attempt >= MAX_AGGREGATE_ATTEMPTS || !isAggregateConflict(error)) {
+                    throw error;
+                }
+                LOG.debugf("Aggregate row conflict, retrying ingestion transaction (attempt %d)", attempt);
+            }
+        }
+    }
+
+    //with the filter disabled every event goes through the DB check
+    private EventIdFilter.Verdict check(UUID eventId) {
+        return filter.enabled() ? filter.check(eventId) : EventIdFilter.Verdict.MAYBE;
+    }
+
+    //after the commit only: a rolled back event must not show up in the filter or in the live numbers
+    private void committed(List<AccountEventEntity> stored) {
+        remember(stored.stream().map(entity -> entity.eventId).toList());
+        live.record(stored);
+    }
+
+    private void remember(List<UUID> committed) {
+        if (filter.enabled()) {
+            filter.recordStored(committed);
         }
     }
 
+    private static boolean isAggregateConflict(Throwable throwable) {
+        for (Throwable cur = throwable; cur != null; cur = cur.getCause()) {
+            if (cur instanceof AggregateConflictException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //duplicate event. An aggregate conflict is also a constraint violation underneath, but the event itself is new
     private static boolean isUniqueViolation(Throwable throwable) {
+        if (isAggregateConflict(throwable)) {
+            return false;
+        }
         Throwable cur = throwable;
         while (cur != null) {
             if (cur instanceof org.hibernate.exception.ConstraintViolationException) {
@@ -74,4 +275,4 @@ public class AccountEventIngestionService {
         }
         return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,10 @@
+package com.bankdata.analytics.application;
+
+//Another transaction inserted the same new aggregate row first. Not a duplicate event - the ingestion
+//transaction is simply retried and then finds the row and increments it.
+public class AggregateConflictException extends RuntimeException {
+
+    public AggregateConflictException(Throwable cause) {
+        super("Concurrent insert of an aggregate row", cause);
+    }
+}
@@ -0,0 +1,14 @@
+package com.bankdata.analytics.application;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "analytics.aggregates")
+public interface AggregatesConfig {
+
+    //rows per (granularity, bucket, type) in event_type_buckets, summed on read. Concurrent ingestion transactions
+    //(consumer lanes of all consumers on this node, replay) each take their own shard, so it should be >= the
+    //number of those transactions running at once; above that, shards are shared and lanes wait for each other again
+    @WithDefault("16")
+    int shards();
+}
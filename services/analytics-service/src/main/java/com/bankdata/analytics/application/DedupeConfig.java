@@ -0,0 +1,23 @@
+package com.bankdata.analytics.application;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "analytics.dedupe")
+public interface DedupeConfig {
+
+    //false = always ask the DB (old behaviour)
+    @WithDefault("true")
+    boolean enabled();
+
+    //eventIds per Bloom generation; two generations are kept, so ~2x this many recent ids are covered
+    @WithDefault("1000000")
+    int expectedEvents();
+
+    @WithDefault("0.01")
+    double falsePositiveProbability();
+
+    //exact recently-stored eventIds (16 bytes each), must be > 0
+    @WithDefault("100000")
+    int exactCapacity();
+}
@@ -0,0 +1,120 @@
+package com.bankdata.analytics.application;
+
+import com.bankdata.analytics.persistence.AccountEventExportReader;
+import com.bankdata.analytics.persistence.AccountEventExportReader.ExportedEvent;
+import com.bankdata.analytics.persistence.EventLogCursor;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+//Streams the event log as NDJSON (one JSON object per line) or CSV, straight from the JDBC cursor to the response.
+//Every row carries its own cursor token - if the download breaks, the client resumes with after=<last token>.
+@ApplicationScoped
+public class EventExportService {
+    private static final Logger LOG = Logger.getLogger(EventExportService.class);
+
+    private static final String CSV_HEADER =
+            "eventId,occurredAt,type,accountNumber,fromAccountNumber,toAccountNumber,amount,balance,cursor\n";
+
+    private final AccountEventExportReader reader;
+    private final ObjectMapper mapper;
+    private final ExportConfig config;
+
+    @Inject
+    public EventExportService(AccountEventExportReader reader, ObjectMapper mapper, ExportConfig config) {
+        this.reader = reader;
+        this.mapper = mapper;
+        this.config = config;
+    }
+
+    public void export(ExportFormat format, EventLogCursor after, Instant from, Instant to, OutputStream out) throws Exception {
+        long rows = switch (format) {
+            case NDJSON -> writeNdjson(after, from, to, out);
+            case CSV -> writeCsv(after, from, to, out);
+        };
+        LOG.infof("Exported %d events as %s", rows, format);
+    }
+
+    //streaming generator: no tree / DTO per row, the generator buffer is flushed as it fills up
+    private long writeNdjson(EventLogCursor after, Instant from, Instant to, OutputStream out) throws Exception {
+        try (JsonGenerator json = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.setRootValueSeparator(null);
+            return reader.stream(after, from, to, config.fetchSize(), row -> {
+                json.writeStartObject();
+                json.writeStringField("eventId", row.eventId().toString());
+                json.writeStringField("occurredAt", row.occurredAt().toString());
+                json.writeStringField("type", row.type().name());
+                writeNullable(json, "accountNumber", row.accountNumber());
+                writeNullable(json, "fromAccountNumber", row.fromAccountNumber());
+                writeNullable(json, "toAccountNumber", row.toAccountNumber());
+                writeNullable(json, "amount", row.amount());
+                writeNullable(json, "balance", row.balance());
+                json.writeStringField("cursor", row.cursor().encode());
+                json.writeEndObject();
+                json.writeRaw('\n');
+            });
+        }
+    }
+
+    private long writeCsv(EventLogCursor after, Instant from, Instant to, OutputStream out) throws Exception {
+        try (Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024)) {
+            csv.write(CSV_HEADER);
+            return reader.stream(after, from, to, config.fetchSize(), row -> writeCsvRow(csv, row));
+        }
+    }
+
+    private static void writeCsvRow(Writer csv, ExportedEvent row) throws Exception {
+        csv.write(row.eventId().toString());
+        csv.write(',');
+        csv.write(row.occurredAt().toString());
+        csv.write(',');
+        csv.write(row.type().name());
+        csv.write(',');
+        writeCsvValue(csv, row.accountNumber());
+        csv.write(',');
+        writeCsvValue(csv, row.fromAccountNumber());
+        csv.write(',');
+        writeCsvValue(csv, row.toAccountNumber());
+        csv.write(',');
+        writeCsvValue(csv, row.amount());
+        csv.write(',');
+        writeCsvValue(csv, row.balance());
+        csv.write(',');
+        csv.write(row.cursor().encode());
+        csv.write('\n');
+    }
+
+    private static void writeNullable(JsonGenerator json, String field, String value) throws Exception {
+        if (value == null) {
+            json.writeNullField(field);
+        } else {
+            json.writeStringField(field, value);
+        }
+    }
+
+    //RFC 4180: quote only when needed, double the quotes inside; null = empty field
+    private static void writeCsvValue(Writer csv, String value) throws Exception {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            csv.write(value);
+            return;
+        }
+        csv.write('"');
+        csv.write(value.replace("\"", "\"\""));
+        csv.write('"');
+    }
+}
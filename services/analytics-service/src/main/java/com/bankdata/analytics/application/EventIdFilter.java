@@ -0,0 +1,131 @@
+package com.bankdata.analytics.application;
+
+import com.bankdata.analytics.persistence.AccountEventRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+//In-memory pre-check in front of the eventId idempotency check.
+//Almost every incoming event is new, so asking the DB "does it exist?" for each one is wasted work.
+//- exact LRU of recently stored ids   -> SEEN: duplicate for sure, no DB call
+//- Bloom filter says "not there"      -> NEW: no DB call
+//- Bloom filter says "maybe"          -> MAYBE: ask the DB
+//The filter only covers a recent window (two Bloom generations), so an old event redelivered after the window
+//comes back as NEW. That is still correct: uk_account_event_event_id stays the final guard on insert.
+@ApplicationScoped
+public class EventIdFilter {
+    private static final Logger LOG = Logger.getLogger(EventIdFilter.class);
+
+    public enum Verdict { SEEN, NEW, MAYBE }
+
+    private final DedupeConfig config;
+    private final AccountEventRepository repository;
+
+    private UuidBloomFilter current;
+    private UuidBloomFilter previous;
+    private UuidLruSet exact;
+
+    private final LongAdder seen = new LongAdder();
+    private final LongAdder definitelyNew = new LongAdder();
+    private final LongAdder maybe = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    @Inject
+    public EventIdFilter(DedupeConfig config, AccountEventRepository repository, MeterRegistry registry) {
+        this.config = config;
+        this.repository = repository;
+        //fail at startup with the property name, not on the first event
+        if (config.exactCapacity() <= 0) {
+            throw new IllegalStateException("analytics.dedupe.exact-capacity must be > 0, was " + config.exactCapacity());
+        }
+        this.current = new UuidBloomFilter(config.expectedEvents(), config.falsePositiveProbability());
+        this.previous = null;
+        this.exact = new UuidLruSet(config.exactCapacity());
+
+        FunctionCounter.builder("analytics.dedupe.checks", seen, LongAdder::sum).tag("verdict", "seen").register(registry);
+        FunctionCounter.builder("analytics.dedupe.checks", definitelyNew, LongAdder::sum).tag("verdict", "new").register(registry);
+        FunctionCounter.builder("analytics.dedupe.checks", maybe, LongAdder::sum).tag("verdict", "maybe").register(registry);
+        FunctionCounter.builder("analytics.dedupe.false.positives", falsePositives, LongAdder::sum).register(registry);
+        Gauge.builder("analytics.dedupe.false.positive.rate", this, EventIdFilter::falsePositiveRate)
+                .description("Share of new events the Bloom filter wrongly reported as maybe-seen")
+                .register(registry);
+    }
+
+    public boolean enabled() {
+        return config.enabled();
+    }
+
+    public synchronized Verdict check(UUID eventId) {
+        if (exact.contains(eventId)) {
+            seen.increment();
+            return Verdict.SEEN;
+        }
+        if (current.mightContain(eventId) || (previous != null && previous.mightContain(eventId))) {
+            maybe.increment();
+            return Verdict.MAYBE;
+        }
+        definitelyNew.increment();
+        return Verdict.NEW;
+    }
+
+    //call only for ids that are committed in the DB
+    public synchronized void recordStored(UUID eventId) {
+        if (current.isFull()) {
+            //rotate generations: drop the oldest window, start a fresh one
+            previous = current;
+            current = new UuidBloomFilter(config.expectedEvents(), config.falsePositiveProbability());
+        }
+        current.put(eventId);
+        exact.add(eventId);
+    }
+
+    public void recordStored(Iterable<UUID> eventIds) {
+        for (UUID eventId : eventIds) {
+            recordStored(eventId);
+        }
+    }
+
+    //the table was emptied (replay with reset): forget everything, otherwise replayed events would look like duplicates
+    public synchronized void clear() {
+        current = new UuidBloomFilter(config.expectedEvents(), config.falsePositiveProbability());
+        previous = null;
+        exact = new UuidLruSet(config.exactCapacity());
+    }
+
+    //a MAYBE that turned out to be not in the DB
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    //FP rate over new events: false positives / (new events answered NEW + false positives)
+    public double falsePositiveRate() {
+        long fp = falsePositives.sum();
+        long negatives = definitelyNew.sum() + fp;
+        return negatives == 0 ? 0.0 : (double) fp / negatives;
+    }
+
+    //Rebuild from the table on startup. Only the most recent window is loaded - older ids are not needed,
+    //the unique constraint covers them.
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        if (!config.enabled()) {
+            return;
+        }
+        List<UUID> recent = repository.findRecentEventIds(config.expectedEvents());
+        //oldest first, so the exact LRU ends up with the newest ids
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            recordStored(recent.get(i));
+        }
+        LOG.infof("EventId filter rebuilt from %d stored events", recent.size());
+    }
+}
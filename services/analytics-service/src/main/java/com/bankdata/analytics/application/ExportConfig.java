@@ -0,0 +1,12 @@
+package com.bankdata.analytics.application;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "analytics.export")
+public interface ExportConfig {
+
+    //rows fetched from the DB per round trip - this (not the result size) bounds the export memory
+    @WithDefault("500")
+    int fetchSize();
+}
@@ -0,0 +1,19 @@
+package com.bankdata.analytics.application;
+
+import com.bankdata.contracts.events.AccountEventCodec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+//one Kafka record value as it came in. contentType is the content-type header, null for old producers (= JSON).
+//The buffer wraps the record bytes, nothing is copied before decoding.
+public record IncomingEvent(String contentType, ByteBuffer payload) {
+
+    public static IncomingEvent json(String json) {
+        return new IncomingEvent(AccountEventCodec.JSON_CONTENT_TYPE, ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public boolean isBinary() {
+        return AccountEventCodec.isBinary(contentType);
+    }
+}
@@ -0,0 +1,20 @@
+package com.bankdata.analytics.application;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "analytics.live")
+public interface LiveMetricsConfig {
+
+    //false = no in-memory metrics, /analytics/live answers 404
+    @WithDefault("true")
+    boolean enabled();
+
+    //longest window that can be asked for; also how much of the event table is replayed on startup
+    @WithDefault("3600")
+    int windowSeconds();
+
+    //accounts tracked per minute by the top-K sketch, must be > 0; accounts above 1/capacity of the volume are never missed
+    @WithDefault("1000")
+    int topCapacity();
+}
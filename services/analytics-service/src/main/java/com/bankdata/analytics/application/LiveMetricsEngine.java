@@ -0,0 +1,179 @@
+package com.bankdata.analytics.application;
+
+import com.bankdata.analytics.persistence.AccountEventEntity;
+import com.bankdata.analytics.persistence.AccountEventExportReader;
+import com.bankdata.contracts.events.AccountEventType;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Live numbers over the last seconds/minutes/hour, entirely in memory:
+//- per event type: count and amount in a sliding window (SlidingWindowCounter, lock-free)
+//- top accounts by transfer volume: one Space-Saving sketch per minute, merged on read. Sender and receiver
+//  are both credited with the amount. Each minute slot has its own monitor, so writers only meet readers of that minute
+//Fed by ingestion with events that were actually stored (redeliveries are not counted twice) and rebuilt from
+//the last windowSeconds of account_events on startup. Time = event occurredAt, not arrival time.
+@ApplicationScoped
+public class LiveMetricsEngine {
+    private static final Logger LOG = Logger.getLogger(LiveMetricsEngine.class);
+
+    private final LiveMetricsConfig config;
+    private final AccountEventExportReader reader;
+    private final int fetchSize;
+
+    private final Map<AccountEventType, SlidingWindowCounter> counters = new EnumMap<>(AccountEventType.class);
+    private final MinuteSlot[] topSlots;
+
+    @Inject
+    public LiveMetricsEngine(LiveMetricsConfig config, AccountEventExportReader reader, ExportConfig exportConfig) {
+        this.config = config;
+        this.reader = reader;
+        this.fetchSize = exportConfig.fetchSize();
+        //an empty sketch can't hold anything; fail at startup with the property name
+        if (config.topCapacity() <= 0) {
+            throw new IllegalStateException("analytics.live.top-capacity must be > 0, was " + config.topCapacity());
+        }
+        for (AccountEventType type : AccountEventType.values()) {
+            counters.put(type, new SlidingWindowCounter(config.windowSeconds()));
+        }
+        this.topSlots = new MinuteSlot[Math.ceilDiv(config.windowSeconds(), 60) + 1];
+        for (int i = 0; i < topSlots.length; i++) {
+            topSlots[i] = new MinuteSlot(config.topCapacity());
+        }
+    }
+
+    public boolean enabled() {
+        return config.enabled();
+    }
+
+    public int maxWindowSeconds() {
+        return config.windowSeconds();
+    }
+
+    public void record(Collection<AccountEventEntity> events) {
+        if (!config.enabled()) {
+            return;
+        }
+        for (AccountEventEntity event : events) {
+            record(event.type, event.occurredAt, event.amount, event.fromAccountNumber, event.toAccountNumber);
+        }
+    }
+
+    void record(AccountEventType type, Instant occurredAt, String amount, String from, String to) {
+        long nowSecond = Math.floorDiv(System.currentTimeMillis(), 1000);
+        //clock skew between services: an event "from the future" counts as now
+        long second = Math.min(occurredAt.getEpochSecond(), nowSecond);
+        long cents = cents(amount);
+
+        counters.get(type).add(second, nowSecond, cents);
+
+        if (type == AccountEventType.MONEY_TRANSFERRED && second > nowSecond - config.windowSeconds()) {
+            long minute = Math.floorDiv(second, 60);
+            MinuteSlot slot = topSlots[(int) Math.floorMod(minute, (long) topSlots.length)];
+            synchronized (slot) {
+                if (slot.minute != minute) {
+                    if (slot.minute > minute) {
+                        return;
+                    }
+                    slot.minute = minute;
+                    slot.sketch.clear();
+                }
+                if (from != null) slot.sketch.add(from, cents);
+                if (to != null) slot.sketch.add(to, cents);
+            }
+        }
+    }
+
+    public List<TypeRate> rates(int windowSeconds) {
+        long nowSecond = Math.floorDiv(System.currentTimeMillis(), 1000);
+        int window = Math.min(windowSeconds, config.windowSeconds());
+        List<TypeRate> rates = new ArrayList<>(counters.size());
+        counters.forEach((type, counter) -> {
+            SlidingWindowCounter.Totals totals = counter.sum(nowSecond, window);
+            rates.add(new TypeRate(type, window, totals.count(), BigDecimal.valueOf(totals.amount(), 2),
+                    (double) totals.count() / window));
+        });
+        return rates;
+    }
+
+    //minute resolution: the window is rounded up to whole minutes, the current minute included
+    public List<AccountVolume> topAccounts(int windowSeconds, int limit) {
+        long nowMinute = Math.floorDiv(System.currentTimeMillis(), 60_000);
+        long minutes = Math.min(Math.ceilDiv(windowSeconds, 60), topSlots.length - 1);
+        Map<String, long[]> merged = new HashMap<>();
+        for (MinuteSlot slot : topSlots) {
+            synchronized (slot) {
+                if (slot.minute > nowMinute - minutes && slot.minute <= nowMinute) {
+                    slot.sketch.mergeInto(merged);
+                }
+            }
+        }
+        List<AccountVolume> top = new ArrayList<>(limit);
+        for (Map.Entry<String, long[]> entry : SpaceSavingSketch.top(merged, limit)) {
+            top.add(new AccountVolume(entry.getKey(),
+                    BigDecimal.valueOf(entry.getValue()[0], 2),
+                    BigDecimal.valueOf(entry.getValue()[1], 2)));
+        }
+        return top;
+    }
+
+    //Forget everything (the event store was reset): a replay feeds the same events in again and would count them twice
+    public void reset() {
+        counters.values().forEach(SlidingWindowCounter::clear);
+        for (MinuteSlot slot : topSlots) {
+            synchronized (slot) {
+                slot.minute = Long.MIN_VALUE;
+                slot.sketch.clear();
+            }
+        }
+    }
+
+    //Rebuild the window from the table: plain JDBC stream, nothing but the counters is kept in memory
+    void onStart(@Observes StartupEvent event) throws Exception {
+        if (!config.enabled()) {
+            return;
+        }
+        Instant from = Instant.ofEpochMilli(System.currentTimeMillis()).minusSeconds(config.windowSeconds());
+        long rows = reader.stream(null, from, null, fetchSize, row ->
+                record(row.type(), row.occurredAt(), row.amount(), row.fromAccountNumber(), row.toAccountNumber()));
+        LOG.infof("Live metrics rebuilt from %d events of the last %d seconds", rows, config.windowSeconds());
+    }
+
+    private static long cents(String amount) {
+        if (amount == null) {
+            return 0;
+        }
+        try {
+            return new BigDecimal(amount).movePointRight(2).longValue();
+        } catch (NumberFormatException exception) {
+            return 0;
+        }
+    }
+
+    public record TypeRate(AccountEventType type, int windowSeconds, long count, BigDecimal volume, double perSecond) {
+    }
+
+    //volume may be overestimated by at most maxError (Space-Saving)
+    public record AccountVolume(String accountNumber, BigDecimal volume, BigDecimal maxError) {
+    }
+
+    private static final class MinuteSlot {
+        long minute = Long.MIN_VALUE;
+        final SpaceSavingSketch sketch;
+
+        MinuteSlot(int capacity) {
+            this.sketch = new SpaceSavingSketch(capacity);
+        }
+    }
+}
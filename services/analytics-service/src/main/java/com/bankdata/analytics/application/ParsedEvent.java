@@ -0,0 +1,35 @@
+package com.bankdata.analytics.application;
+
+import com.bankdata.contracts.events.AccountEvent;
+import com.bankdata.contracts.events.AccountEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+//decoded AccountEvent + the raw JSON that goes to raw_json; json is null for binary records.
+//Static and public so AccountEventCodecBenchmark measures exactly the consumer decode path.
+public record ParsedEvent(AccountEvent event, String json) {
+
+    //binary: decoded straight from the record buffer, no raw payload is kept (the columns hold the whole event).
+    //JSON: raw text is kept in raw_json as before.
+    public static ParsedEvent parse(IncomingEvent record, ObjectMapper mapper) {
+        if (record.isBinary()) {
+            return new ParsedEvent(AccountEventCodec.decode(record.payload().duplicate()), null);
+        }
+        ByteBuffer payload = record.payload();
+        String json = payload.hasArray()
+                ? new String(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining(), StandardCharsets.UTF_8)
+                : StandardCharsets.UTF_8.decode(payload.duplicate()).toString();
+        return new ParsedEvent(parseJson(json, mapper), json);
+    }
+
+    public static AccountEvent parseJson(String json, ObjectMapper mapper) {
+        try {
+            return mapper.readValue(json, AccountEvent.class);
+        } catch (IOException exception) {
+            throw new IllegalArgumentException("Invalid AccountEvent JSON payload", exception);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.bankdata.analytics.application;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+//Event count + amount sum over the last N seconds, as a ring of one-second buckets.
+//Writers never lock: a bucket belongs to the second stored in epochs[i]; the first writer of a new second
+//CASes the epoch and resets the adders, everyone else just adds. LongAdder keeps concurrent adds on one
+//bucket from fighting over a single cache line.
+//Trade-off: an add racing with the reset of the same bucket (one second rolling over) can be lost.
+//That is a live dashboard number, not money - the exact numbers are in event_type_buckets.
+final class SlidingWindowCounter {
+
+    private final int slots;
+    private final AtomicLongArray epochs;
+    private final LongAdder[] counts;
+    private final LongAdder[] sums;
+
+    SlidingWindowCounter(int seconds) {
+        this.slots = seconds;
+        this.epochs = new AtomicLongArray(seconds);
+        this.counts = new LongAdder[seconds];
+        this.sums = new LongAdder[seconds];
+        for (int i = 0; i < seconds; i++) {
+            epochs.set(i, Long.MIN_VALUE);
+            counts[i] = new LongAdder();
+            sums[i] = new LongAdder();
+        }
+    }
+
+    int seconds() {
+        return slots;
+    }
+
+    //second = epoch second the event happened at; too old for the ring = ignored
+    void add(long second, long nowSecond, long amount) {
+        if (second <= nowSecond - slots) {
+            return;
+        }
+        int i = (int) Math.floorMod(second, (long) slots);
+        long epoch = epochs.get(i);
+        if (epoch != second) {
+            if (epoch > second) {
+                return; //slot already reused by a newer second
+            }
+            if (epochs.compareAndSet(i, epoch, second)) {
+                counts[i].reset();
+                sums[i].reset();
+            }
+        }
+        counts[i].increment();
+        sums[i].add(amount);
+    }
+
+    //same trade-off as a second rolling over: an add racing with the clear may survive it or be lost
+    void clear() {
+        for (int i = 0; i < slots; i++) {
+            epochs.set(i, Long.MIN_VALUE);
+            counts[i].reset();
+            sums[i].reset();
+        }
+    }
+
+    //totals of seconds in (nowSecond - window, nowSecond]
+    Totals sum(long nowSecond, int window) {
+        int w = Math.min(window, slots);
+        long count = 0;
+        long amount = 0;
+        for (int i = 0; i < slots; i++) {
+            long epoch = epochs.get(i);
+            if (epoch > nowSecond - w && epoch <= nowSecond) {
+                count += counts[i].sum();
+                amount += sums[i].sum();
+            }
+        }
+        return new Totals(count, amount);
+    }
+
+    record Totals(long count, long amount) {
+    }
+}
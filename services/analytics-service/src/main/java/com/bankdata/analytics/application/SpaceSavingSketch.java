@@ -0,0 +1,129 @@
+package com.bankdata.analytics.application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Weighted Space-Saving heavy hitters: at most `capacity` keys are tracked, memory never grows.
+//When a new key arrives and the sketch is full, it takes over the smallest entry and inherits its weight as error.
+//Every key heavier than total / capacity is guaranteed to be in the sketch, and weight - error <= true weight <= weight.
+//Entries live in a min-heap by weight (arrays + key -> heap index), so the smallest entry is always the root:
+//adding to a known key or replacing the root is O(log capacity), no scan. Weights are amounts, not unit counts,
+//which is why this is a heap and not the O(1) bucket list of the unweighted Stream-Summary.
+//Not thread-safe, the owner synchronizes.
+final class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<String, Integer> index; //key -> heap position
+    private final String[] keys;
+    private final long[] weights;
+    private final long[] errors;
+    private int size;
+
+    SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.capacity = capacity;
+        this.index = new HashMap<>(capacity * 2);
+        this.keys = new String[capacity];
+        this.weights = new long[capacity];
+        this.errors = new long[capacity];
+    }
+
+    void add(String key, long weight) {
+        Integer position = index.get(key);
+        if (position != null) {
+            weights[position] += weight;
+            if (weight >= 0) {
+                siftDown(position);
+            } else {
+                siftUp(position);
+            }
+            return;
+        }
+        if (size < capacity) {
+            keys[size] = key;
+            weights[size] = weight;
+            errors[size] = 0;
+            index.put(key, size);
+            siftUp(size++);
+            return;
+        }
+        //full: the new key takes over the smallest entry, which is the root
+        long min = weights[0];
+        index.remove(keys[0]);
+        keys[0] = key;
+        weights[0] = min + weight;
+        errors[0] = min;
+        index.put(key, 0);
+        siftDown(0);
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0, size, null);
+        index.clear();
+        size = 0;
+    }
+
+    //adds this sketch's entries into target: key -> {weight, error}
+    void mergeInto(Map<String, long[]> target) {
+        for (int i = 0; i < size; i++) {
+            long[] sum = target.computeIfAbsent(keys[i], ignored -> new long[2]);
+            sum[0] += weights[i];
+            sum[1] += errors[i];
+        }
+    }
+
+    static List<Map.Entry<String, long[]>> top(Map<String, long[]> merged, int limit) {
+        List<Map.Entry<String, long[]>> sorted = new ArrayList<>(merged.entrySet());
+        sorted.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+        return sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (weights[parent] <= weights[position]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && weights[left] < weights[smallest]) {
+                smallest = left;
+            }
+            if (right < size && weights[right] < weights[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long weight = weights[a];
+        weights[a] = weights[b];
+        weights[b] = weight;
+        long error = errors[a];
+        errors[a] = errors[b];
+        errors[b] = error;
+        index.put(keys[a], a);
+        index.put(keys[b], b);
+    }
+}
@@ -0,0 +1,101 @@
+package com.bankdata.analytics.application;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+//Bounded set of the most recently added UUIDs, stored as two longs each (no UUID objects, no boxing).
+//- ring[] keeps entries in insertion order; when full, the oldest entry is evicted
+//- index[] is an open-addressing (linear probing) hash table pointing into the ring
+//Not thread-safe, EventIdFilter guards it.
+final class UuidLruSet {
+    private static final int EMPTY = -1;
+
+    private final long[] msb;
+    private final long[] lsb;
+    private final int[] index;
+    private final int mask;
+    private int head;
+    private int size;
+
+    UuidLruSet(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.msb = new long[capacity];
+        this.lsb = new long[capacity];
+        //load factor <= 0.5 keeps probe chains short
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+        this.index = new int[tableSize];
+        this.mask = tableSize - 1;
+        Arrays.fill(index, EMPTY);
+    }
+
+    boolean contains(UUID id) {
+        return find(id.getMostSignificantBits(), id.getLeastSignificantBits()) >= 0;
+    }
+
+    void add(UUID id) {
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        if (find(hi, lo) >= 0) {
+            return;
+        }
+        if (size == msb.length) {
+            remove(msb[head], lsb[head]);
+        } else {
+            size++;
+        }
+        msb[head] = hi;
+        lsb[head] = lo;
+
+        int slot = slot(hi, lo);
+        while (index[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = head;
+        head = (head + 1) % msb.length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    //returns table slot or -1
+    private int find(long hi, long lo) {
+        int slot = slot(hi, lo);
+        while (index[slot] != EMPTY) {
+            int pos = index[slot];
+            if (msb[pos] == hi && lsb[pos] == lo) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    //backward-shift deletion keeps linear probing chains valid without tombstones
+    private void remove(long hi, long lo) {
+        int slot = find(hi, lo);
+        if (slot < 0) {
+            return;
+        }
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (index[next] != EMPTY) {
+            int pos = index[next];
+            int home = slot(msb[pos], lsb[pos]);
+            //move entry back if its home is not in (free, next]
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                index[free] = pos;
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        index[free] = EMPTY;
+    }
+
+    private int slot(long hi, long lo) {
+        long h = (hi ^ lo) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+}
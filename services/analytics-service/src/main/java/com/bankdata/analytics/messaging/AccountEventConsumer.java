@@ -1,23 +1,96 @@
 package com.bankdata.analytics.messaging;
 
 import com.bankdata.analytics.application.AccountEventIngestionService;
-import io.quarkus.arc.profile.IfBuildProfile;
+import com.bankdata.analytics.application.IncomingEvent;
+import com.bankdata.contracts.events.AccountEventCodec;
+import io.smallrye.reactive.messaging.annotations.Blocking;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.header.Header;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 @ApplicationScoped
 public class AccountEventConsumer {
 
     private final AccountEventIngestionService ingestion;
+    private final int lanes;
 
     @Inject
-    public AccountEventConsumer(AccountEventIngestionService ingestion) {
+    public AccountEventConsumer(AccountEventIngestionService ingestion, ConsumerLanesConfig config) {
         this.ingestion = ingestion;
+        this.lanes = Math.max(1, config.lanes());
     }
 
+    //batch=true on the channel: we get all records of one poll at once.
+    //The batch is acked (and offsets committed) only after this method returns, i.e. after the DB commit.
+    //If it throws, the batch is nacked and nothing is committed.
+    //Raw ConsumerRecords (byte[] values) because the decoder is chosen per record by its content-type header.
+    //Batches are still handled one at a time (ordered @Blocking), the parallelism is inside a batch:
+    //records are split into lanes by key (account number), every lane is ingested on its own virtual thread
+    //in its own transaction. One key always lands in the same lane, in poll order, so events of an account
+    //are stored in order. Lanes don't queue on the shared aggregate rows: each transaction writes its own
+    //shard of event_type_buckets (see AccountEventAggregator). A failed lane fails the whole batch; the
+    //redelivered records that the other lanes already stored are skipped by the eventId check.
     @Incoming("words-in")
-    public void onMessage(String json) {
-        ingestion.ingest(json);
+    @Blocking
+    public void onBatch(ConsumerRecords<String, byte[]> records) throws Exception {
+        List<List<IncomingEvent>> byLane = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            byLane.add(new ArrayList<>());
+        }
+        for (ConsumerRecord<String, byte[]> record : records) {
+            if (record.value() == null) {
+                continue; //tombstone, nothing to ingest
+            }
+            byLane.get(lane(record)).add(toIncoming(record));
+        }
+        byLane.removeIf(List::isEmpty);
+
+        if (byLane.size() <= 1) {
+            for (List<IncomingEvent> events : byLane) {
+                ingestion.ingestEncodedBatch(events);
+            }
+            return;
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> results = new ArrayList<>(byLane.size());
+            for (List<IncomingEvent> events : byLane) {
+                results.add(executor.submit(() -> ingestion.ingestEncodedBatch(events)));
+            }
+            for (Future<Integer> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+        }
+    }
+
+    //records without a key (older producers) are spread by partition, which keeps their order as well
+    private int lane(ConsumerRecord<String, byte[]> record) {
+        int hash = record.key() != null ? record.key().hashCode() : record.partition();
+        return Math.floorMod(hash, lanes);
+    }
+
+    //also used by EventReplayService
+    static IncomingEvent toIncoming(ConsumerRecord<String, byte[]> record) {
+        return new IncomingEvent(contentType(record), ByteBuffer.wrap(record.value()));
+    }
+
+    private static String contentType(ConsumerRecord<String, byte[]> record) {
+        Header header = record.headers().lastHeader(AccountEventCodec.CONTENT_TYPE_HEADER);
+        return header == null ? null : new String(header.value(), StandardCharsets.US_ASCII);
     }
-}
\ No newline at end of file
+}
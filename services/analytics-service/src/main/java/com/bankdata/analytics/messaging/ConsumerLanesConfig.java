@@ -0,0 +1,12 @@
+package com.bankdata.analytics.messaging;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "analytics.consumer")
+public interface ConsumerLanesConfig {
+
+    //a polled batch is split by record key into this many lanes, ingested concurrently; 1 = old behaviour
+    @WithDefault("4")
+    int lanes();
+}
@@ -0,0 +1,262 @@
+package com.bankdata.analytics.messaging;
+
+import com.bankdata.analytics.application.AccountEventIngestionService;
+import com.bankdata.analytics.application.IncomingEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+//Rebuilds analytics state by reading the event topic again, next to (not instead of) the live consumer.
+//- every partition is read by its own KafkaConsumer (manual assign, no consumer group, no offset commits),
+//  up to analytics.replay.parallelism partitions at a time, from the requested position to the end offset
+//  seen at start
+//- records go through the batch ingestion in big chunks (replayBatch): the ids of a chunk are looked up in ONE
+//  query and only the missing events are inserted, because replayed events are usually stored already and older
+//  than anything the in-memory filter remembers. The eventId unique constraint still guards the insert against
+//  the live consumer. Participants and aggregates are maintained as usual
+//- progress (per partition position/end, records/s) is logged and available via progress()
+@ApplicationScoped
+public class EventReplayService {
+    private static final Logger LOG = Logger.getLogger(EventReplayService.class);
+
+    private final AccountEventIngestionService ingestion;
+    private final ReplayConfig config;
+    private final String bootstrapServers;
+
+    private final AtomicReference<Job> current = new AtomicReference<>();
+
+    @Inject
+    public EventReplayService(AccountEventIngestionService ingestion,
+                              ReplayConfig config,
+                              @ConfigProperty(name = "kafka.bootstrap.servers", defaultValue = "localhost:9092") String bootstrapServers) {
+        this.ingestion = ingestion;
+        this.config = config;
+        this.bootstrapServers = bootstrapServers;
+    }
+
+    //IllegalStateException if a replay is already running
+    public ReplayProgress start(ReplayRequest request) {
+        if (request.fromOffset() != null && request.fromTimestamp() != null) {
+            throw new IllegalArgumentException("fromOffset and fromTimestamp cannot be used together");
+        }
+        if (request.fromOffset() != null && request.fromOffset() < 0) {
+            throw new IllegalArgumentException("fromOffset must be >= 0");
+        }
+        Job job = new Job();
+        Job previous = current.get();
+        if ((previous != null && previous.status == ReplayProgress.Status.RUNNING) || !current.compareAndSet(previous, job)) {
+            throw new IllegalStateException("Replay is already running");
+        }
+        Thread.ofPlatform().name("event-replay").daemon().start(() -> run(request, job));
+        return job.snapshot();
+    }
+
+    public ReplayProgress progress() {
+        Job job = current.get();
+        if (job == null) {
+            return new ReplayProgress(ReplayProgress.Status.IDLE, null, null, 0, 0, 0, List.of(), null);
+        }
+        return job.snapshot();
+    }
+
+    @PreDestroy
+    void stop() {
+        Job job = current.get();
+        if (job != null) {
+            job.cancelled = true;
+        }
+    }
+
+    private void run(ReplayRequest request, Job job) {
+        ExecutorService workers = null;
+        try {
+            if (request.reset()) {
+                ingestion.resetStore();
+            }
+            List<TopicPartition> partitions;
+            try (Consumer<String, byte[]> consumer = newConsumer("analytics-replay-meta")) {
+                partitions = consumer.partitionsFor(config.topic()).stream()
+                        .map(info -> new TopicPartition(info.topic(), info.partition()))
+                        .toList();
+            }
+            LOG.infof("Replay of topic %s started: partitions=%d parallelism=%d from=%s",
+                    config.topic(), partitions.size(), config.parallelism(), describe(request));
+
+            AtomicInteger threads = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(Math.max(1, Math.min(config.parallelism(), partitions.size())),
+                    runnable -> new Thread(runnable, "event-replay-" + threads.incrementAndGet()));
+            List<Future<?>> futures = new ArrayList<>(partitions.size());
+            for (TopicPartition partition : partitions) {
+                futures.add(workers.submit(() -> {
+                    try (Consumer<String, byte[]> consumer = newConsumer("analytics-replay-" + partition.partition())) {
+                        replayPartition(consumer, partition, request, job);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                awaitLogging(future, job);
+            }
+            job.finish(ReplayProgress.Status.COMPLETED, null);
+            ReplayProgress done = job.snapshot();
+            LOG.infof("Replay completed: read=%d stored=%d rate=%.0f records/s",
+                    done.recordsRead(), done.eventsStored(), done.recordsPerSecond());
+        } catch (Exception exception) {
+            Throwable cause = exception instanceof ExecutionException ? exception.getCause() : exception;
+            job.cancelled = true;
+            job.finish(ReplayProgress.Status.FAILED, String.valueOf(cause));
+            LOG.errorf(cause, "Replay failed");
+        } finally {
+            if (workers != null) {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    //one partition, from the requested position up to the end offset it had when we started
+    void replayPartition(Consumer<String, byte[]> consumer, TopicPartition partition, ReplayRequest request, Job job) {
+        List<TopicPartition> assignment = List.of(partition);
+        consumer.assign(assignment);
+        long end = consumer.endOffsets(assignment).get(partition);
+        seek(consumer, partition, request, end);
+
+        PartitionState state = job.partition(partition.partition(), consumer.position(partition), end);
+        List<IncomingEvent> chunk = new ArrayList<>(config.chunkSize());
+        while (state.position < end && !job.cancelled) {
+            for (ConsumerRecord<String, byte[]> record : consumer.poll(config.pollTimeout())) {
+                if (record.offset() >= end) {
+                    break;
+                }
+                job.read.increment();
+                if (record.value() != null) {
+                    chunk.add(AccountEventConsumer.toIncoming(record));
+                }
+                if (chunk.size() >= config.chunkSize()) {
+                    ingest(chunk, job);
+                }
+            }
+            state.position = Math.min(consumer.position(partition), end);
+        }
+        ingest(chunk, job);
+    }
+
+    private void ingest(List<IncomingEvent> chunk, Job job) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        job.stored.add(ingestion.replayBatch(chunk));
+        chunk.clear();
+    }
+
+    private static void seek(Consumer<String, byte[]> consumer, TopicPartition partition, ReplayRequest request, long end) {
+        if (request.fromTimestamp() != null) {
+            OffsetAndTimestamp found = consumer.offsetsForTimes(Map.of(partition, request.fromTimestamp().toEpochMilli()))
+                    .get(partition);
+            consumer.seek(partition, found == null ? end : found.offset()); //null = nothing that new
+        } else if (request.fromOffset() != null) {
+            long beginning = consumer.beginningOffsets(List.of(partition)).get(partition);
+            consumer.seek(partition, Math.max(beginning, Math.min(request.fromOffset(), end)));
+        } else {
+            consumer.seekToBeginning(List.of(partition));
+        }
+    }
+
+    private void awaitLogging(Future<?> future, Job job) throws Exception {
+        while (true) {
+            try {
+                future.get(config.progressLogInterval().toMillis(), TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException stillRunning) {
+                ReplayProgress progress = job.snapshot();
+                long behind = progress.partitions().stream().mapToLong(p -> p.end() - p.position()).sum();
+                LOG.infof("Replay progress: read=%d stored=%d remaining=%d rate=%.0f records/s",
+                        progress.recordsRead(), progress.eventsStored(), behind, progress.recordsPerSecond());
+            }
+        }
+    }
+
+    private Consumer<String, byte[]> newConsumer(String clientId) {
+        return new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ConsumerConfig.CLIENT_ID_CONFIG, clientId,
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false,
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, config.chunkSize()
+        ), new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
+    private static String describe(ReplayRequest request) {
+        if (request.fromTimestamp() != null) return "timestamp " + request.fromTimestamp();
+        if (request.fromOffset() != null) return "offset " + request.fromOffset();
+        return "beginning";
+    }
+
+    static final class Job {
+        final Instant startedAt = Instant.now();
+        final LongAdder read = new LongAdder();
+        final LongAdder stored = new LongAdder();
+        final Map<Integer, PartitionState> partitions = new ConcurrentSkipListMap<>();
+        volatile ReplayProgress.Status status = ReplayProgress.Status.RUNNING;
+        volatile Instant finishedAt;
+        volatile String error;
+        volatile boolean cancelled;
+
+        PartitionState partition(int partition, long position, long end) {
+            PartitionState state = new PartitionState(end);
+            state.position = position;
+            partitions.put(partition, state);
+            return state;
+        }
+
+        void finish(ReplayProgress.Status status, String error) {
+            this.finishedAt = Instant.now();
+            this.error = error;
+            this.status = status;
+        }
+
+        ReplayProgress snapshot() {
+            Instant until = finishedAt == null ? Instant.now() : finishedAt;
+            double seconds = Math.max(1, Duration.between(startedAt, until).toMillis()) / 1000.0;
+            long readNow = read.sum();
+            List<ReplayProgress.PartitionProgress> perPartition = new ArrayList<>(partitions.size());
+            partitions.forEach((partition, state) ->
+                    perPartition.add(new ReplayProgress.PartitionProgress(partition, state.position, state.end)));
+            return new ReplayProgress(status, startedAt, finishedAt, readNow, stored.sum(), readNow / seconds,
+                    perPartition, error);
+        }
+    }
+
+    static final class PartitionState {
+        final long end;
+        volatile long position;
+
+        PartitionState(long end) {
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.bankdata.analytics.messaging;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "analytics.replay")
+public interface ReplayConfig {
+
+    //the topic words-in reads from
+    @WithDefault("words-out")
+    String topic();
+
+    //partitions replayed at the same time, one thread + one KafkaConsumer each
+    @WithDefault("4")
+    int parallelism();
+
+    //events per ingestion transaction; much bigger than a live poll, replay is about throughput
+    @WithDefault("5000")
+    int chunkSize();
+
+    @WithDefault("1s")
+    Duration pollTimeout();
+
+    @WithDefault("10s")
+    Duration progressLogInterval();
+}
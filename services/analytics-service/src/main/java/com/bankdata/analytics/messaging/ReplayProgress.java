@@ -0,0 +1,21 @@
+package com.bankdata.analytics.messaging;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ReplayProgress(
+        Status status,
+        Instant startedAt,
+        Instant finishedAt,
+        long recordsRead,
+        long eventsStored,
+        double recordsPerSecond,
+        List<PartitionProgress> partitions,
+        String error
+) {
+    public enum Status { IDLE, RUNNING, COMPLETED, FAILED }
+
+    //position = next offset to read, end = where this replay stops
+    public record PartitionProgress(int partition, long position, long end) {
+    }
+}
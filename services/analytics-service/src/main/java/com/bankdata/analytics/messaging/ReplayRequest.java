@@ -0,0 +1,10 @@
+package com.bankdata.analytics.messaging;
+
+import java.time.Instant;
+
+//Where to start: fromOffset (same offset on every partition), fromTimestamp (first record at or after it),
+//or neither = from the beginning. Replay always stops at the end offsets seen when it starts.
+//reset = empty account_events and everything derived from it first (needed to rebuild aggregates, since
+//events that are already stored are skipped as duplicates).
+public record ReplayRequest(Long fromOffset, Instant fromTimestamp, boolean reset) {
+}
@@ -15,15 +15,21 @@ import java.util.UUID;
                 @UniqueConstraint(name = "uk_account_event_event_id", columnNames = "event_id")
         },
         indexes = {
-                @Index(name = "idx_account_events_occurred_at", columnList = "occurred_at"),
+                //id is the tie breaker of the export keyset (occurred_at, id), see AccountEventExportReader
+                @Index(name = "idx_account_events_occurred_at", columnList = "occurred_at,id"),
                 @Index(name = "idx_account_events_account_number", columnList = "account_number"),
-                @Index(name = "idx_account_events_from_to", columnList = "from_account_number,to_account_number")
+                @Index(name = "idx_account_events_from_to", columnList = "from_account_number,to_account_number"),
+                //receiver side of the accountNumber filter, from_to only helps when from_account_number is known
+                @Index(name = "idx_account_events_to", columnList = "to_account_number")
         }
 )
 public class AccountEventEntity extends PanacheEntityBase {
 
+    //SEQUENCE (not IDENTITY): Hibernate can only batch INSERTs when it knows ids before the insert.
+    //allocationSize matches the JDBC batch size, so one sequence call covers one batch.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_events_seq")
+    @SequenceGenerator(name = "account_events_seq", sequenceName = "account_events_seq", allocationSize = 100)
     @Column(name = "id")
     public Long id;
 
@@ -53,8 +59,9 @@ public class AccountEventEntity extends PanacheEntityBase {
     @Column(name = "balance", length = 64)
     public String balance;
 
+    //original JSON for events that came as JSON, null for binary ones (all fields are in the columns above)
     @Lob
-    @Column(name = "raw_json", nullable = false)
+    @Column(name = "raw_json")
     public String rawJson;
 
     public static AccountEventEntity fromContract(AccountEvent event, String rawJson) {
@@ -0,0 +1,116 @@
+package com.bankdata.analytics.persistence;
+
+import com.bankdata.contracts.events.AccountEventType;
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+//Plain JDBC on purpose: a forward-only, read-only cursor with a bounded fetch size, rows are handed to the consumer
+//one by one and dropped. Hibernate would keep every entity in the persistence context (and load the raw_json LOB).
+//Keyset condition (occurred_at, id) > (?, ?) + ORDER BY occurred_at, id is a range scan of idx_account_events_occurred_at.
+@ApplicationScoped
+public class AccountEventExportReader {
+
+    private final AgroalDataSource dataSource;
+
+    @Inject
+    public AccountEventExportReader(AgroalDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @FunctionalInterface
+    public interface RowConsumer {
+        void accept(ExportedEvent row) throws Exception;
+    }
+
+    public record ExportedEvent(
+            long id,
+            UUID eventId,
+            Instant occurredAt,
+            AccountEventType type,
+            String accountNumber,
+            String fromAccountNumber,
+            String toAccountNumber,
+            String amount,
+            String balance
+    ) {
+        public EventLogCursor cursor() {
+            return new EventLogCursor(occurredAt, id);
+        }
+    }
+
+    //after/from/to are optional. Returns the number of rows streamed.
+    public long stream(EventLogCursor after, Instant from, Instant to, int fetchSize, RowConsumer consumer) throws Exception {
+        StringBuilder sql = new StringBuilder("""
+                select id, event_id, occurred_at, type, account_number, from_account_number, to_account_number, amount, balance
+                from account_events
+                where 1 = 1""");
+        List<Object> params = new ArrayList<>();
+        if (after != null) {
+            sql.append(" and (occurred_at, id) > (?, ?)");
+            params.add(utc(after.occurredAt()));
+            params.add(after.id());
+        }
+        if (from != null) {
+            sql.append(" and occurred_at >= ?");
+            params.add(utc(from));
+        }
+        if (to != null) {
+            sql.append(" and occurred_at < ?");
+            params.add(utc(to));
+        }
+        sql.append(" order by occurred_at, id");
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            //some drivers (PostgreSQL) only use a server-side cursor when autocommit is off
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                long rows = 0;
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        consumer.accept(read(resultSet));
+                        rows++;
+                    }
+                }
+                return rows;
+            } finally {
+                connection.rollback(); //read-only, nothing to commit - just end the transaction
+            }
+        }
+    }
+
+    private static ExportedEvent read(ResultSet resultSet) throws SQLException {
+        return new ExportedEvent(
+                resultSet.getLong(1),
+                resultSet.getObject(2, UUID.class),
+                resultSet.getObject(3, OffsetDateTime.class).toInstant(),
+                AccountEventType.valueOf(resultSet.getString(4)),
+                resultSet.getString(5),
+                resultSet.getString(6),
+                resultSet.getString(7),
+                resultSet.getString(8),
+                resultSet.getString(9)
+        );
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
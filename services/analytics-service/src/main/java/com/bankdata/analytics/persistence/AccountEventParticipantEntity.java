@@ -0,0 +1,69 @@
+package com.bankdata.analytics.persistence;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+//One row per (account, event) the account took part in - as owner, sender or receiver.
+//account_events keeps the account in three columns, so "everything about account X" would be an OR over three
+//indexes plus a sort. Here it is ONE range of idx_account_event_participants_timeline, already in timeline order,
+//and the index alone has everything needed to find the event rows (by primary key).
+//Written by ingestion in the same transaction as the event itself.
+@Entity
+@Table(
+        name = "account_event_participants",
+        indexes = @Index(
+                name = "idx_account_event_participants_timeline",
+                columnList = "account_number,occurred_at,event_ref_id",
+                unique = true
+        )
+)
+public class AccountEventParticipantEntity extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_event_participants_seq")
+    @SequenceGenerator(name = "account_event_participants_seq", sequenceName = "account_event_participants_seq", allocationSize = 100)
+    @Column(name = "id")
+    public Long id;
+
+    @Column(name = "account_number", nullable = false, updatable = false)
+    public String accountNumber;
+
+    //copy of the event's occurredAt, so the timeline order comes from this index alone
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    public Instant occurredAt;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "event_ref_id", nullable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_account_event_participants_event"))
+    public AccountEventEntity event;
+
+    //every distinct account mentioned by the event (a transfer gives two rows)
+    public static List<AccountEventParticipantEntity> of(AccountEventEntity event) {
+        Set<String> accounts = new LinkedHashSet<>(3);
+        addIfPresent(accounts, event.accountNumber);
+        addIfPresent(accounts, event.fromAccountNumber);
+        addIfPresent(accounts, event.toAccountNumber);
+
+        List<AccountEventParticipantEntity> participants = new ArrayList<>(accounts.size());
+        for (String account : accounts) {
+            AccountEventParticipantEntity participant = new AccountEventParticipantEntity();
+            participant.accountNumber = account;
+            participant.occurredAt = event.occurredAt;
+            participant.event = event;
+            participants.add(participant);
+        }
+        return participants;
+    }
+
+    private static void addIfPresent(Set<String> accounts, String accountNumber) {
+        if (accountNumber != null && !accountNumber.isBlank()) {
+            accounts.add(accountNumber);
+        }
+    }
+}
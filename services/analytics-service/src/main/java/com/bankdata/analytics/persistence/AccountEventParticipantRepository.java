@@ -0,0 +1,44 @@
+package com.bankdata.analytics.persistence;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ApplicationScoped
+public class AccountEventParticipantRepository implements PanacheRepository<AccountEventParticipantEntity> {
+
+    //called with freshly persisted events (ids already assigned), inserts go into the same JDBC batch flush
+    public void persistFor(List<AccountEventEntity> events) {
+        List<AccountEventParticipantEntity> participants = new ArrayList<>(events.size() * 2);
+        for (AccountEventEntity event : events) {
+            participants.addAll(AccountEventParticipantEntity.of(event));
+        }
+        persist(participants);
+    }
+
+    //Timeline of one account, newest first. The filter, the order and the keyset all run on the timeline index
+    //(account_number, occurred_at, event_ref_id); event rows are then fetched by primary key.
+    //Returns up to limit + 1 rows, the extra one only tells the caller there is a next page.
+    public List<AccountEventView> findTimeline(String accountNumber, EventLogCursor after, int limit, boolean includeRaw) {
+        StringBuilder jpql = new StringBuilder("select new com.bankdata.analytics.persistence.AccountEventView("
+                + "e.id, e.eventId, e.occurredAt, e.type, e.accountNumber, e.fromAccountNumber, e.toAccountNumber, "
+                + "e.amount, e.balance");
+        jpql.append(includeRaw ? ", e.rawJson)" : ")");
+        jpql.append(" from AccountEventParticipantEntity p join p.event e where p.accountNumber = :account");
+        if (after != null) {
+            jpql.append(" and (p.occurredAt, p.event.id) < (:afterAt, :afterId)");
+        }
+        jpql.append(" order by p.occurredAt desc, p.event.id desc");
+
+        TypedQuery<AccountEventView> query = getEntityManager().createQuery(jpql.toString(), AccountEventView.class)
+                .setParameter("account", accountNumber);
+        if (after != null) {
+            query.setParameter("afterAt", after.occurredAt());
+            query.setParameter("afterId", after.id());
+        }
+        return query.setMaxResults(limit + 1).getResultList();
+    }
+}
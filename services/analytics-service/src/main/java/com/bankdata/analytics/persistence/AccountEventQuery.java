@@ -0,0 +1,18 @@
+package com.bankdata.analytics.persistence;
+
+import com.bankdata.contracts.events.AccountEventType;
+
+import java.time.Instant;
+
+//Filters for AccountEventRepository.findPage, null = not filtered.
+//after is the cursor of the last row of the previous page (pages go newest first).
+public record AccountEventQuery(
+        String accountNumber,
+        AccountEventType type,
+        Instant from,
+        Instant to,
+        EventLogCursor after,
+        int limit,
+        boolean includeRaw
+) {
+}
@@ -2,7 +2,14 @@ package com.bankdata.analytics.persistence;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.TypedQuery;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @ApplicationScoped
@@ -11,4 +18,63 @@ public class AccountEventRepository implements PanacheRepository<AccountEventEnt
     public boolean existsByEventId(UUID eventId) {
         return count("eventId", eventId) > 0;
     }
-}
\ No newline at end of file
+
+    //one set-based query for the whole batch instead of a count() per event
+    public Set<UUID> findExistingEventIds(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(getEntityManager()
+                .createQuery("select e.eventId from AccountEventEntity e where e.eventId in :ids", UUID.class)
+                .setParameter("ids", eventIds)
+                .getResultList());
+    }
+
+    //newest first; used to warm up the in-memory dedupe filter
+    public List<UUID> findRecentEventIds(int limit) {
+        return getEntityManager()
+                .createQuery("select e.eventId from AccountEventEntity e order by e.id desc", UUID.class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    //One page, newest first. Keyset instead of OFFSET: (occurredAt, id) < cursor is a range on
+    //idx_account_events_occurred_at, so page 10000 costs the same as page 1. id breaks ties of equal timestamps.
+    //accountNumber matches any role (owner, sender, receiver); each branch of the OR has its own index.
+    //Returns up to limit + 1 rows, the extra one only tells the caller there is a next page.
+    public List<AccountEventView> findPage(AccountEventQuery query) {
+        StringBuilder jpql = new StringBuilder("select new com.bankdata.analytics.persistence.AccountEventView("
+                + "e.id, e.eventId, e.occurredAt, e.type, e.accountNumber, e.fromAccountNumber, e.toAccountNumber, "
+                + "e.amount, e.balance");
+        jpql.append(query.includeRaw() ? ", e.rawJson)" : ")");
+        jpql.append(" from AccountEventEntity e where 1 = 1");
+
+        Map<String, Object> params = new HashMap<>();
+        if (query.after() != null) {
+            jpql.append(" and (e.occurredAt, e.id) < (:afterAt, :afterId)");
+            params.put("afterAt", query.after().occurredAt());
+            params.put("afterId", query.after().id());
+        }
+        if (query.accountNumber() != null) {
+            jpql.append(" and (e.accountNumber = :account or e.fromAccountNumber = :account or e.toAccountNumber = :account)");
+            params.put("account", query.accountNumber());
+        }
+        if (query.type() != null) {
+            jpql.append(" and e.type = :type");
+            params.put("type", query.type());
+        }
+        if (query.from() != null) {
+            jpql.append(" and e.occurredAt >= :from");
+            params.put("from", query.from());
+        }
+        if (query.to() != null) {
+            jpql.append(" and e.occurredAt < :to");
+            params.put("to", query.to());
+        }
+        jpql.append(" order by e.occurredAt desc, e.id desc");
+
+        TypedQuery<AccountEventView> typed = getEntityManager().createQuery(jpql.toString(), AccountEventView.class);
+        params.forEach(typed::setParameter);
+        return typed.setMaxResults(query.limit() + 1).getResultList();
+    }
+}
@@ -0,0 +1,36 @@
+package com.bankdata.analytics.persistence;
+
+import com.bankdata.contracts.events.AccountEventType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.UUID;
+
+//Read-side projection of account_events, filled by a "select new" query: no managed entity, no dirty checking.
+//rawJson is only selected when the caller asked for it (the LOB is the most expensive column to read),
+//otherwise it is null and left out of the JSON.
+public record AccountEventView(
+        Long id,
+        UUID eventId,
+        Instant occurredAt,
+        AccountEventType type,
+        String accountNumber,
+        String fromAccountNumber,
+        String toAccountNumber,
+        String amount,
+        String balance,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String rawJson
+) {
+
+    public AccountEventView(Long id, UUID eventId, Instant occurredAt, AccountEventType type, String accountNumber,
+                            String fromAccountNumber, String toAccountNumber, String amount, String balance) {
+        this(id, eventId, occurredAt, type, accountNumber, fromAccountNumber, toAccountNumber, amount, balance, null);
+    }
+
+    @JsonIgnore
+    public EventLogCursor cursor() {
+        return new EventLogCursor(occurredAt, id);
+    }
+}
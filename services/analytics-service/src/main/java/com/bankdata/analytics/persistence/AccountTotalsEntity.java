@@ -0,0 +1,34 @@
+package com.bankdata.analytics.persistence;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+//Running money in/out of one account. In = initial deposit, deposits, incoming transfers; out = outgoing transfers.
+//Maintained by ingestion (see AggregateRepository), read by primary key.
+@Entity
+@Table(name = "account_totals")
+public class AccountTotalsEntity extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "account_number", nullable = false)
+    public String accountNumber;
+
+    @Column(name = "in_count", nullable = false)
+    public long inCount;
+
+    @Column(name = "in_amount", nullable = false, precision = 38, scale = 2)
+    public BigDecimal inAmount;
+
+    @Column(name = "out_count", nullable = false)
+    public long outCount;
+
+    @Column(name = "out_amount", nullable = false, precision = 38, scale = 2)
+    public BigDecimal outAmount;
+
+    //latest occurredAt among the counted events
+    @Column(name = "last_event_at")
+    public Instant lastEventAt;
+}
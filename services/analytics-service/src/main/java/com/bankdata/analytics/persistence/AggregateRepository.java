@@ -0,0 +1,109 @@
+package com.bankdata.analytics.persistence;
+
+import com.bankdata.contracts.events.AccountEventType;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+//Upserts for the aggregate tables: "update set x = x + delta", and insert only when the row is not there yet.
+//Increments happen in the DB, so concurrent ingesters never overwrite each other's numbers.
+//Two ingesters inserting the same new row at once is the only conflict - the loser gets a constraint violation on
+//flush and its whole transaction is retried (see AccountEventAggregator). Type buckets are written per shard, so
+//that only happens when two transactions share a shard.
+@ApplicationScoped
+public class AggregateRepository {
+
+    @Inject
+    EntityManager em;
+
+    public void addToTypeBucket(int shard, BucketGranularity granularity, Instant bucketStart, AccountEventType type,
+                                long count, BigDecimal amount) {
+        int updated = em.createQuery("""
+                        update EventTypeBucketEntity b
+                        set b.eventCount = b.eventCount + :count, b.amountSum = b.amountSum + :amount
+                        where b.granularity = :granularity and b.bucketStart = :bucketStart and b.type = :type
+                          and b.shard = :shard""")
+                .setParameter("count", count)
+                .setParameter("amount", amount)
+                .setParameter("granularity", granularity)
+                .setParameter("bucketStart", bucketStart)
+                .setParameter("type", type)
+                .setParameter("shard", shard)
+                .executeUpdate();
+        if (updated == 0) {
+            EventTypeBucketEntity bucket = new EventTypeBucketEntity();
+            bucket.shard = shard;
+            bucket.granularity = granularity;
+            bucket.bucketStart = bucketStart;
+            bucket.type = type;
+            bucket.eventCount = count;
+            bucket.amountSum = amount;
+            em.persist(bucket);
+        }
+    }
+
+    public void addToAccountTotals(String accountNumber, long inCount, BigDecimal inAmount,
+                                   long outCount, BigDecimal outAmount, Instant lastEventAt) {
+        int updated = em.createQuery("""
+                        update AccountTotalsEntity t
+                        set t.inCount = t.inCount + :inCount, t.inAmount = t.inAmount + :inAmount,
+                            t.outCount = t.outCount + :outCount, t.outAmount = t.outAmount + :outAmount,
+                            t.lastEventAt = case when t.lastEventAt is null or t.lastEventAt < :lastEventAt
+                                                 then :lastEventAt else t.lastEventAt end
+                        where t.accountNumber = :accountNumber""")
+                .setParameter("inCount", inCount)
+                .setParameter("inAmount", inAmount)
+                .setParameter("outCount", outCount)
+                .setParameter("outAmount", outAmount)
+                .setParameter("lastEventAt", lastEventAt)
+                .setParameter("accountNumber", accountNumber)
+                .executeUpdate();
+        if (updated == 0) {
+            AccountTotalsEntity totals = new AccountTotalsEntity();
+            totals.accountNumber = accountNumber;
+            totals.inCount = inCount;
+            totals.inAmount = inAmount;
+            totals.outCount = outCount;
+            totals.outAmount = outAmount;
+            totals.lastEventAt = lastEventAt;
+            em.persist(totals);
+        }
+    }
+
+    public void deleteAll() {
+        em.createQuery("delete from EventTypeBucketEntity").executeUpdate();
+        em.createQuery("delete from AccountTotalsEntity").executeUpdate();
+    }
+
+    public void flush() {
+        em.flush();
+    }
+
+    //[from, to) by primary key order, type = null for all types; shards of a bucket are summed
+    public List<TypeBucketTotal> findTypeBuckets(BucketGranularity granularity, Instant from, Instant to,
+                                                 AccountEventType type, int limit) {
+        String jpql = "select new com.bankdata.analytics.persistence.TypeBucketTotal("
+                + "b.granularity, b.bucketStart, b.type, sum(b.eventCount), sum(b.amountSum))"
+                + " from EventTypeBucketEntity b where b.granularity = :granularity"
+                + " and b.bucketStart >= :from and b.bucketStart < :to"
+                + (type == null ? "" : " and b.type = :type")
+                + " group by b.granularity, b.bucketStart, b.type"
+                + " order by b.bucketStart, b.type";
+        var query = em.createQuery(jpql, TypeBucketTotal.class)
+                .setParameter("granularity", granularity)
+                .setParameter("from", from)
+                .setParameter("to", to);
+        if (type != null) {
+            query.setParameter("type", type);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    public AccountTotalsEntity findAccountTotals(String accountNumber) {
+        return em.find(AccountTotalsEntity.class, accountNumber);
+    }
+}
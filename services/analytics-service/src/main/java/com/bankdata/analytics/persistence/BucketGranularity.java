@@ -0,0 +1,29 @@
+package com.bankdata.analytics.persistence;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+//Time bucket sizes of event_type_buckets. Buckets are in UTC.
+public enum BucketGranularity {
+    MINUTE(ChronoUnit.MINUTES, Duration.ofHours(1)),
+    HOUR(ChronoUnit.HOURS, Duration.ofDays(1)),
+    DAY(ChronoUnit.DAYS, Duration.ofDays(30));
+
+    private final ChronoUnit unit;
+    private final Duration defaultRange;
+
+    BucketGranularity(ChronoUnit unit, Duration defaultRange) {
+        this.unit = unit;
+        this.defaultRange = defaultRange;
+    }
+
+    public Instant bucketStart(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    //how far back GET /analytics/aggregates looks when "from" is not given
+    public Duration defaultRange() {
+        return defaultRange;
+    }
+}
@@ -0,0 +1,35 @@
+package com.bankdata.analytics.persistence;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+//Keyset position in the event log: (occurred_at, id) of the last row the client has seen.
+//id breaks ties between events with the same occurredAt, so the order is total and no row is skipped or repeated.
+//Token is opaque for clients: base64url of "<epochSecond>.<nano>:<id>".
+public record EventLogCursor(Instant occurredAt, long id) {
+
+    public String encode() {
+        String raw = occurredAt.getEpochSecond() + "." + occurredAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    //IllegalArgumentException for anything that is not a token we produced
+    public static EventLogCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int dot = raw.indexOf('.');
+            int colon = raw.indexOf(':');
+            if (dot < 0 || colon < dot) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            Instant occurredAt = Instant.ofEpochSecond(
+                    Long.parseLong(raw, 0, dot, 10),
+                    Long.parseLong(raw, dot + 1, colon, 10)
+            );
+            return new EventLogCursor(occurredAt, Long.parseLong(raw, colon + 1, raw.length(), 10));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
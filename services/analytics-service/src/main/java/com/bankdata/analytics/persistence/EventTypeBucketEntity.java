@@ -0,0 +1,75 @@
+package com.bankdata.analytics.persistence;
+
+import com.bankdata.contracts.events.AccountEventType;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+//Count and amount sum of one event type in one time bucket. Maintained by ingestion (see AggregateRepository),
+//so reading volume for a period is a primary key range, not a scan of account_events.
+//Every bucket is split into shard rows, one per concurrent ingestion transaction (see AccountEventAggregator),
+//so lanes don't queue on the same hot row; readers sum the shards (TypeBucketTotal).
+@Entity
+@Table(name = "event_type_buckets")
+@IdClass(EventTypeBucketEntity.Key.class)
+public class EventTypeBucketEntity extends PanacheEntityBase {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 16)
+    public BucketGranularity granularity;
+
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    public Instant bucketStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 64)
+    public AccountEventType type;
+
+    @Id
+    @Column(name = "shard", nullable = false)
+    public int shard;
+
+    @Column(name = "event_count", nullable = false)
+    public long eventCount;
+
+    @Column(name = "amount_sum", nullable = false, precision = 38, scale = 2)
+    public BigDecimal amountSum;
+
+    public static class Key implements Serializable {
+        public BucketGranularity granularity;
+        public Instant bucketStart;
+        public AccountEventType type;
+        public int shard;
+
+        public Key() {
+        }
+
+        public Key(BucketGranularity granularity, Instant bucketStart, AccountEventType type, int shard) {
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+            this.type = type;
+            this.shard = shard;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key
+                    && granularity == key.granularity
+                    && Objects.equals(bucketStart, key.bucketStart)
+                    && type == key.type
+                    && shard == key.shard;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(granularity, bucketStart, type, shard);
+        }
+    }
+}
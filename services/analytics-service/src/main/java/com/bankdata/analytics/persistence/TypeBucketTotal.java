@@ -0,0 +1,14 @@
+package com.bankdata.analytics.persistence;
+
+import com.bankdata.contracts.events.AccountEventType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+//One (granularity, bucket, type) of event_type_buckets, its shard rows summed up
+public record TypeBucketTotal(BucketGranularity granularity,
+                              Instant bucketStart,
+                              AccountEventType type,
+                              long eventCount,
+                              BigDecimal amountSum) {
+}
@@ -0,0 +1,73 @@
+package com.bankdata.analytics.api;
+
+import com.bankdata.analytics.application.AccountEventIngestionService;
+import com.bankdata.contracts.events.AccountEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+
+@QuarkusTest
+class AggregatesResourceIntegrationTest {
+
+    @Inject
+    AccountEventIngestionService ingestion;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Test
+    void accountTotals_countInAndOut_andIgnoreReplayedEvents() throws Exception {
+        String created = mapper.writeValueAsString(AccountEvent.created("4000000001", "10.00"));
+        String deposit = mapper.writeValueAsString(AccountEvent.deposited("4000000001", "5.50", "15.50"));
+        String transfer = mapper.writeValueAsString(AccountEvent.transferred("4000000001", "4000000002", "2.25"));
+
+        ingestion.ingestBatch(List.of(created, deposit, transfer));
+        //redelivery of the same events must not be counted again
+        ingestion.ingestBatch(List.of(created, deposit, transfer));
+        ingestion.ingest(transfer);
+
+        given()
+                .when()
+                .get("/analytics/aggregates/accounts/4000000001")
+                .then()
+                .statusCode(200)
+                .body("inCount", is(2))
+                .body("inAmount", is(15.5f))
+                .body("outCount", is(1))
+                .body("outAmount", is(2.25f));
+
+        given()
+                .when()
+                .get("/analytics/aggregates/accounts/4000000002")
+                .then()
+                .statusCode(200)
+                .body("inCount", is(1))
+                .body("outCount", is(0));
+    }
+
+    @Test
+    void buckets_containIngestedTypes() throws Exception {
+        ingestion.ingest(mapper.writeValueAsString(AccountEvent.transferred("4000000003", "4000000004", "1.00")));
+
+        given()
+                .when()
+                .get("/analytics/aggregates?granularity=minute&type=MONEY_TRANSFERRED")
+                .then()
+                .statusCode(200)
+                .body("type", hasItem("MONEY_TRANSFERRED"))
+                .body("granularity", hasItem("MINUTE"));
+    }
+
+    @Test
+    void unknownAccount_returns404_andBadGranularity_returns400() {
+        given().when().get("/analytics/aggregates/accounts/4999999999").then().statusCode(404);
+        given().when().get("/analytics/aggregates?granularity=WEEK").then().statusCode(400);
+    }
+}
@@ -1,14 +1,32 @@
 package com.bankdata.analytics.api;
 
+import com.bankdata.analytics.application.AccountEventIngestionService;
+import com.bankdata.contracts.events.AccountEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
 
 @QuarkusTest
 class AnalyticsResourceIntegrationTest {
 
+    @Inject
+    AccountEventIngestionService ingestion;
+
+    @Inject
+    ObjectMapper mapper;
+
     @Test
     void events_returns200_andArray() {
         given()
@@ -18,4 +36,94 @@ class AnalyticsResourceIntegrationTest {
                 .statusCode(200)
                 .body("$", is(org.hamcrest.Matchers.instanceOf(java.util.List.class)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void events_pagesWithCursor_filteredByAccount() throws Exception {
+        String account = "3000000001";
+        List<String> payloads = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            payloads.add(mapper.writeValueAsString(AccountEvent.transferred(account, "3000000002", i + ".00")));
+        }
+        payloads.add(mapper.writeValueAsString(AccountEvent.created("3000000009", "1.00")));
+        ingestion.ingestBatch(payloads);
+
+        List<String> seen = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            Response page = given()
+                    .queryParam("accountNumber", account)
+                    .queryParam("limit", 2)
+                    .queryParam("after", cursor)
+                    .when()
+                    .get("/analytics/events");
+            assertEquals(200, page.statusCode());
+            seen.addAll(page.jsonPath().getList("eventId"));
+            cursor = page.header(AnalyticsResource.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(5, seen.size());
+        assertEquals(5, seen.stream().distinct().count());
+    }
+
+    @Test
+    void events_rawJson_onlyWhenRequested() throws Exception {
+        ingestion.ingest(mapper.writeValueAsString(AccountEvent.created("3000000010", "1.00")));
+
+        given()
+                .when()
+                .get("/analytics/events?accountNumber=3000000010")
+                .then()
+                .statusCode(200)
+                .body("$", everyItem(not(hasKey("rawJson"))));
+
+        given()
+                .when()
+                .get("/analytics/events?accountNumber=3000000010&includeRaw=true")
+                .then()
+                .statusCode(200)
+                .body("$", everyItem(hasKey("rawJson")));
+    }
+
+    @Test
+    void accountTimeline_containsEveryRole_newestFirst() throws Exception {
+        String account = "3000000020";
+        AccountEvent created = AccountEvent.created(account, "10.00");
+        AccountEvent sent = AccountEvent.transferred(account, "3000000021", "1.00");
+        AccountEvent received = AccountEvent.transferred("3000000022", account, "2.00");
+        ingestion.ingest(mapper.writeValueAsString(created));
+        ingestion.ingestBatch(List.of(mapper.writeValueAsString(sent), mapper.writeValueAsString(received)));
+
+        Response first = given()
+                .when()
+                .get("/analytics/accounts/" + account + "/events?limit=2");
+        assertEquals(200, first.statusCode());
+        String cursor = first.header(AnalyticsResource.NEXT_CURSOR_HEADER);
+        assertNotNull(cursor);
+
+        List<String> ids = new ArrayList<>(first.jsonPath().getList("eventId"));
+        given()
+                .queryParam("after", cursor)
+                .when()
+                .get("/analytics/accounts/" + account + "/events?limit=2")
+                .then()
+                .statusCode(200)
+                .header(AnalyticsResource.NEXT_CURSOR_HEADER, org.hamcrest.Matchers.nullValue())
+                .body("size()", is(1))
+                .extract().jsonPath().getList("eventId", String.class).forEach(ids::add);
+
+        //occurredAt of the three events is increasing, so the timeline is the reverse order
+        assertEquals(List.of(received.eventId().toString(), sent.eventId().toString(), created.eventId().toString()), ids);
+    }
+
+    @Test
+    void events_unknownType_returns400() {
+        given()
+                .when()
+                .get("/analytics/events?type=NOPE")
+                .then()
+                .statusCode(400);
+    }
+}
@@ -0,0 +1,82 @@
+package com.bankdata.analytics.api;
+
+import com.bankdata.analytics.application.AccountEventIngestionService;
+import com.bankdata.contracts.events.AccountEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class EventExportIntegrationTest {
+
+    @Inject
+    AccountEventIngestionService ingestion;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Test
+    void export_ndjson_resumesFromCursor_withoutGapsOrRepeats() throws Exception {
+        List<String> payloads = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            payloads.add(mapper.writeValueAsString(AccountEvent.deposited("2000000001", "1.00", i + ".00")));
+        }
+        ingestion.ingestBatch(payloads);
+
+        List<JsonNode> all = exportNdjson(null);
+        assertTrue(all.size() >= 5);
+
+        //resume after the 2nd row: the rest must be exactly rows 3..n
+        List<JsonNode> rest = exportNdjson(all.get(1).get("cursor").asText());
+        assertEquals(all.size() - 2, rest.size());
+        assertEquals(all.get(2).get("eventId"), rest.get(0).get("eventId"));
+        assertEquals(all.get(all.size() - 1).get("eventId"), rest.get(rest.size() - 1).get("eventId"));
+    }
+
+    @Test
+    void export_csv_startsWithHeader() {
+        given()
+                .when()
+                .get("/analytics/events/export?format=csv")
+                .then()
+                .statusCode(200)
+                .contentType(startsWith("text/csv"))
+                .body(startsWith("eventId,occurredAt,type,"));
+    }
+
+    @Test
+    void export_invalidCursor_returns400() {
+        given()
+                .when()
+                .get("/analytics/events/export?after=not-a-cursor")
+                .then()
+                .statusCode(400);
+    }
+
+    private List<JsonNode> exportNdjson(String after) throws Exception {
+        String body = given()
+                .queryParam("after", after == null ? "" : after)
+                .when()
+                .get("/analytics/events/export")
+                .then()
+                .statusCode(200)
+                .contentType(startsWith("application/x-ndjson"))
+                .extract().asString();
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isEmpty()) {
+                rows.add(mapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+}
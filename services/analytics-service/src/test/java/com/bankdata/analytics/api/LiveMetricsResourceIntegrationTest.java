@@ -0,0 +1,52 @@
+package com.bankdata.analytics.api;
+
+import com.bankdata.analytics.application.AccountEventIngestionService;
+import com.bankdata.contracts.events.AccountEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+
+@QuarkusTest
+class LiveMetricsResourceIntegrationTest {
+
+    @Inject
+    AccountEventIngestionService ingestion;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Test
+    void topAccounts_containsBiggestTransferAccount() throws Exception {
+        ingestion.ingestBatch(List.of(
+                mapper.writeValueAsString(AccountEvent.transferred("5000000001", "5000000002", "900000.00")),
+                mapper.writeValueAsString(AccountEvent.transferred("5000000001", "5000000003", "1.00"))
+        ));
+
+        given()
+                .when()
+                .get("/analytics/live/top-accounts?window=300&limit=3")
+                .then()
+                .statusCode(200)
+                .body("[0].accountNumber", is("5000000001"));
+
+        given()
+                .when()
+                .get("/analytics/live?window=60")
+                .then()
+                .statusCode(200)
+                .body("type", hasItem("MONEY_TRANSFERRED"));
+    }
+
+    @Test
+    void windowOutOfRange_returns400() {
+        given().when().get("/analytics/live?window=0").then().statusCode(400);
+        given().when().get("/analytics/live?window=100000").then().statusCode(400);
+    }
+}
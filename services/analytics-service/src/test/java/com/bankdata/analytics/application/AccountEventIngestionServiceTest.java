@@ -0,0 +1,84 @@
+package com.bankdata.analytics.application;
+
+import com.bankdata.analytics.persistence.AccountEventRepository;
+import com.bankdata.contracts.events.AccountEvent;
+import com.bankdata.contracts.events.AccountEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class AccountEventIngestionServiceTest {
+
+    @Inject
+    AccountEventIngestionService ingestion;
+
+    @Inject
+    AccountEventRepository repository;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Inject
+    EventIdFilter filter;
+
+    @Test
+    void ingestBatch_dedupesInsideBatch_andAgainstStoredEvents() throws Exception {
+        String first = mapper.writeValueAsString(AccountEvent.created("1000000001", "10.00"));
+        String second = mapper.writeValueAsString(AccountEvent.deposited("1000000001", "5.00", "15.00"));
+
+        ingestion.ingest(first);
+
+        int stored = ingestion.ingestBatch(List.of(first, second, second));
+
+        assertEquals(1, stored);
+        assertTrue(repository.existsByEventId(mapper.readValue(second, AccountEvent.class).eventId()));
+    }
+
+    @Test
+    void ingestBatch_skipsInvalidPayload_andStoresTheRest() throws Exception {
+        String valid = mapper.writeValueAsString(AccountEvent.transferred("1000000001", "1000000002", "1.00"));
+
+        int stored = ingestion.ingestBatch(List.of("{not json", valid));
+
+        assertEquals(1, stored);
+    }
+
+    @Test
+    void ingestEncodedBatch_acceptsBinaryAndJson_inOneBatch() throws Exception {
+        AccountEvent binary = AccountEvent.transferred("1000000003", "1000000004", "2.50");
+        AccountEvent json = AccountEvent.created("1000000005", "0.00");
+
+        int stored = ingestion.ingestEncodedBatch(List.of(
+                new IncomingEvent(AccountEventCodec.CONTENT_TYPE, ByteBuffer.wrap(AccountEventCodec.encode(binary))),
+                IncomingEvent.json(mapper.writeValueAsString(json))
+        ));
+
+        assertEquals(2, stored);
+        assertTrue(repository.existsByEventId(binary.eventId()));
+        assertTrue(repository.existsByEventId(json.eventId()));
+    }
+
+    @Test
+    void replayBatch_insertsOnlyMissingEvents_whenTheFilterForgotTheStoredOnes() throws Exception {
+        AccountEvent old = AccountEvent.deposited("1000000006", "3.00", "3.00");
+        AccountEvent missing = AccountEvent.deposited("1000000006", "4.00", "7.00");
+        ingestion.ingest(mapper.writeValueAsString(old));
+        //the old event is outside the filter's window now
+        filter.clear();
+
+        int stored = ingestion.replayBatch(List.of(
+                IncomingEvent.json(mapper.writeValueAsString(old)),
+                IncomingEvent.json(mapper.writeValueAsString(missing))
+        ));
+
+        assertEquals(1, stored);
+        assertTrue(repository.existsByEventId(missing.eventId()));
+    }
+}
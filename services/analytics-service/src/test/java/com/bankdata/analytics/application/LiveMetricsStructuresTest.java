@@ -0,0 +1,73 @@
+package com.bankdata.analytics.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveMetricsStructuresTest {
+
+    @Test
+    void window_countsOnlyRecentSeconds_andReusesSlots() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(60);
+        long now = 1_000_000;
+        counter.add(now - 100, now, 5); //older than the ring, ignored
+        counter.add(now - 30, now, 100);
+        counter.add(now - 5, now, 200);
+        counter.add(now, now, 300);
+
+        assertEquals(new SlidingWindowCounter.Totals(3, 600), counter.sum(now, 60));
+        assertEquals(new SlidingWindowCounter.Totals(2, 500), counter.sum(now, 10));
+
+        //a minute later the slot of now-30 is taken by now+30, the old value is gone
+        counter.add(now + 30, now + 30, 7);
+        assertEquals(new SlidingWindowCounter.Totals(3, 507), counter.sum(now + 30, 60));
+    }
+
+    @Test
+    void sketch_rejectsZeroCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingSketch(0));
+    }
+
+    @Test
+    void sketch_keepsHeavyHitters_withBoundedMemory() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(10);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("noise-" + i, 1);
+            if (i % 10 == 0) {
+                sketch.add("heavy-a", 50);
+                sketch.add("heavy-b", 20);
+            }
+        }
+        Map<String, long[]> merged = new HashMap<>();
+        sketch.mergeInto(merged);
+        assertTrue(merged.size() <= 10);
+
+        List<Map.Entry<String, long[]>> top = SpaceSavingSketch.top(merged, 2);
+        assertEquals("heavy-a", top.get(0).getKey());
+        assertEquals("heavy-b", top.get(1).getKey());
+        //estimate never below the truth, and the error bound covers the overshoot
+        long[] a = top.get(0).getValue();
+        assertTrue(a[0] >= 5000 && a[0] - a[1] <= 5000);
+    }
+
+    @Test
+    void sketch_newKeyReplacesTheSmallestEntry_andInheritsItsWeightAsError() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+        sketch.add("a", 30);
+        sketch.add("b", 10);
+        sketch.add("c", 20);
+        sketch.add("b", 15); //b = 25, c is the smallest now
+        sketch.add("d", 5);
+
+        Map<String, long[]> merged = new HashMap<>();
+        sketch.mergeInto(merged);
+        assertEquals(Set.of("a", "b", "d"), merged.keySet());
+        assertArrayEquals(new long[]{25, 20}, merged.get("d"));
+        assertArrayEquals(new long[]{25, 0}, merged.get("b"));
+    }
+}
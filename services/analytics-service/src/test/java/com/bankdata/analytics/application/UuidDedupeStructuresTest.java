@@ -0,0 +1,70 @@
+package com.bankdata.analytics.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidDedupeStructuresTest {
+
+    @Test
+    void bloom_hasNoFalseNegatives_andFalsePositiveRateNearConfigured() {
+        UuidBloomFilter bloom = new UuidBloomFilter(10_000, 0.01);
+        List<UUID> inserted = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            bloom.put(id);
+            inserted.add(id);
+        }
+
+        inserted.forEach(id -> assertTrue(bloom.mightContain(id)));
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (bloom.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertTrue(bloom.isFull());
+    }
+
+    @Test
+    void lru_rejectsZeroCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new UuidLruSet(0));
+    }
+
+    @Test
+    void lru_evictsOldest_andKeepsNewest() {
+        UuidLruSet lru = new UuidLruSet(100);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            UUID id = UUID.randomUUID();
+            lru.add(id);
+            ids.add(id);
+        }
+
+        assertEquals(100, lru.size());
+        for (int i = 0; i < 150; i++) {
+            assertFalse(lru.contains(ids.get(i)));
+        }
+        for (int i = 150; i < 250; i++) {
+            assertTrue(lru.contains(ids.get(i)));
+        }
+    }
+
+    @Test
+    void lru_addSameIdTwice_keepsOneEntry() {
+        UuidLruSet lru = new UuidLruSet(10);
+        UUID id = UUID.randomUUID();
+
+        lru.add(id);
+        lru.add(new UUID(id.getMostSignificantBits(), id.getLeastSignificantBits()));
+
+        assertEquals(1, lru.size());
+        assertTrue(lru.contains(id));
+    }
+}
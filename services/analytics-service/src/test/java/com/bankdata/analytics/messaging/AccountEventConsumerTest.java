@@ -0,0 +1,127 @@
+package com.bankdata.analytics.messaging;
+
+import com.bankdata.analytics.application.AccountEventAggregator;
+import com.bankdata.analytics.persistence.AccountEventEntity;
+import com.bankdata.analytics.persistence.AccountEventParticipantRepository;
+import com.bankdata.analytics.persistence.AggregateRepository;
+import com.bankdata.analytics.persistence.BucketGranularity;
+import com.bankdata.analytics.persistence.TypeBucketTotal;
+import com.bankdata.contracts.events.AccountEvent;
+import com.bankdata.contracts.events.AccountEventCodec;
+import com.bankdata.contracts.events.AccountEventType;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class AccountEventConsumerTest {
+
+    @Inject
+    AccountEventConsumer consumer;
+
+    @Inject
+    AccountEventParticipantRepository participants;
+
+    @Inject
+    AccountEventAggregator aggregator;
+
+    @Inject
+    AggregateRepository aggregates;
+
+    @Test
+    void onBatch_ingestsKeyedLanesConcurrently_keepingOrderPerAccount() throws Exception {
+        List<AccountEvent> expected = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String account = "70000000" + String.format("%02d", i % 8);
+            expected.add(AccountEvent.deposited(account, "1.00", (i + 1) + ".00"));
+        }
+
+        consumer.onBatch(batch(expected));
+
+        //every account's timeline (newest first) is exactly its events in reverse poll order
+        for (int a = 0; a < 8; a++) {
+            String account = "70000000" + String.format("%02d", a);
+            List<String> stored = participants.findTimeline(account, null, 100, false).stream()
+                    .map(view -> view.eventId().toString())
+                    .toList();
+            List<String> sent = new ArrayList<>(expected.stream()
+                    .filter(event -> event.accountNumber().equals(account))
+                    .map(event -> event.eventId().toString())
+                    .toList());
+            Collections.reverse(sent);
+            assertEquals(sent, stored);
+        }
+    }
+
+    @Test
+    void onBatch_lanesDoNotQueueOnHotAggregateRows() throws Exception {
+        Instant day = BucketGranularity.DAY.bucketStart(Instant.now());
+        long before = depositedToday(day);
+
+        //another ingestion transaction holds its row locks on today's MONEY_DEPOSITED buckets
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> QuarkusTransaction.requiringNew().run(() -> {
+            AccountEvent other = AccountEvent.deposited("7100000099", "1.00", "1.00");
+            aggregator.apply(List.of(AccountEventEntity.fromContract(other, null)));
+            locked.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        //same buckets from every lane at once; all of them would wait for the holder on a shared row
+        List<AccountEvent> events = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            events.add(AccountEvent.deposited("71000000" + String.format("%02d", i % 8), "1.00", "1.00"));
+        }
+        try {
+            assertTimeout(Duration.ofSeconds(5), () -> consumer.onBatch(batch(events)));
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+
+        assertEquals(before + 41, depositedToday(day));
+    }
+
+    private long depositedToday(Instant day) {
+        return aggregates.findTypeBuckets(BucketGranularity.DAY, day, day.plus(1, ChronoUnit.DAYS),
+                        AccountEventType.MONEY_DEPOSITED, 10).stream()
+                .mapToLong(TypeBucketTotal::eventCount)
+                .sum();
+    }
+
+    private static ConsumerRecords<String, byte[]> batch(List<AccountEvent> events) {
+        TopicPartition partition = new TopicPartition("words-out", 0);
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            AccountEvent event = events.get(i);
+            ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(partition.topic(), partition.partition(), i,
+                    event.accountNumber(), AccountEventCodec.encode(event));
+            record.headers().add(AccountEventCodec.CONTENT_TYPE_HEADER, AccountEventCodec.CONTENT_TYPE.getBytes(StandardCharsets.US_ASCII));
+            records.add(record);
+        }
+        return new ConsumerRecords<>(Map.of(partition, records));
+    }
+}
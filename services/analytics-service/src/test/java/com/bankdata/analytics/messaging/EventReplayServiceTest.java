@@ -0,0 +1,97 @@
+package com.bankdata.analytics.messaging;
+
+import com.bankdata.analytics.application.AccountEventIngestionService;
+import com.bankdata.analytics.application.IncomingEvent;
+import com.bankdata.analytics.persistence.AccountEventRepository;
+import com.bankdata.contracts.events.AccountEvent;
+import com.bankdata.contracts.events.AccountEventCodec;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class EventReplayServiceTest {
+
+    @Inject
+    EventReplayService replay;
+
+    @Inject
+    AccountEventRepository repository;
+
+    @Inject
+    AccountEventIngestionService ingestion;
+
+    @Test
+    void replayPartition_readsToEndOffset_andSkipsDuplicates() {
+        TopicPartition partition = new TopicPartition("words-out", 0);
+        AccountEvent first = AccountEvent.deposited("6000000001", "1.00", "1.00");
+        AccountEvent second = AccountEvent.transferred("6000000001", "6000000002", "0.50");
+
+        MockConsumer<String, byte[]> consumer = new MockConsumer<>("earliest");
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+        consumer.updateEndOffsets(Map.of(partition, 3L));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(binary(partition, 0, first));
+            consumer.addRecord(binary(partition, 1, second));
+            consumer.addRecord(binary(partition, 2, first)); //redelivered
+        });
+
+        EventReplayService.Job job = new EventReplayService.Job();
+        replay.replayPartition(consumer, partition, new ReplayRequest(null, null, false), job);
+
+        ReplayProgress progress = job.snapshot();
+        assertEquals(3, progress.recordsRead());
+        assertEquals(2, progress.eventsStored());
+        assertEquals(List.of(new ReplayProgress.PartitionProgress(0, 3, 3)), progress.partitions());
+        assertTrue(repository.existsByEventId(first.eventId()));
+        assertTrue(repository.existsByEventId(second.eventId()));
+    }
+
+    @Test
+    void replayWithReset_countsRecentEventsOnceInLiveMetrics() {
+        TopicPartition partition = new TopicPartition("words-out", 0);
+        AccountEvent first = AccountEvent.created("6000000011", "1.00");
+        AccountEvent second = AccountEvent.created("6000000012", "2.00");
+        ingestion.ingestEncodedBatch(List.of(
+                new IncomingEvent(AccountEventCodec.CONTENT_TYPE, ByteBuffer.wrap(AccountEventCodec.encode(first))),
+                new IncomingEvent(AccountEventCodec.CONTENT_TYPE, ByteBuffer.wrap(AccountEventCodec.encode(second)))
+        ));
+
+        MockConsumer<String, byte[]> consumer = new MockConsumer<>("earliest");
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+        consumer.updateEndOffsets(Map.of(partition, 2L));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(binary(partition, 0, first));
+            consumer.addRecord(binary(partition, 1, second));
+        });
+
+        //what a replay with reset=true does before it reads the topic
+        ingestion.resetStore();
+        replay.replayPartition(consumer, partition, new ReplayRequest(null, null, true), new EventReplayService.Job());
+
+        given()
+                .when().get("/analytics/live?window=300")
+                .then()
+                .statusCode(200)
+                .body("find { it.type == 'ACCOUNT_CREATED' }.count", is(2));
+    }
+
+    private static ConsumerRecord<String, byte[]> binary(TopicPartition partition, long offset, AccountEvent event) {
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(partition.topic(), partition.partition(), offset,
+                null, AccountEventCodec.encode(event));
+        record.headers().add(AccountEventCodec.CONTENT_TYPE_HEADER, AccountEventCodec.CONTENT_TYPE.getBytes(StandardCharsets.US_ASCII));
+        return record;
+    }
+}
@@ -1,11 +1,26 @@
 package com.bankdata.fx.api;
 
+import com.bankdata.fx.api.dto.ConvertBatchRequest;
+import com.bankdata.fx.api.dto.ConvertBatchResponse;
+import com.bankdata.fx.api.dto.RateAtResponse;
+import com.bankdata.fx.api.dto.RateHistoryResponse;
+import com.bankdata.fx.api.error.BadRequestException;
+import com.bankdata.fx.application.FxConversionService;
+import com.bankdata.fx.application.FxHistoryService;
+import com.bankdata.fx.integration.CurrencyPair;
+import com.bankdata.fx.integration.ExchangeRate;
 import com.bankdata.fx.integration.ExchangeRateApiGateway;
-import com.bankdata.fx.integration.ExchangeRateApiPairResponse;
+import com.bankdata.fx.persistence.RatePoint;
+import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
@@ -14,35 +29,117 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 
 @Path("/fx")
 @Produces(MediaType.APPLICATION_JSON)
 @Tag(name = "FX")
 @ApplicationScoped
 public class FxResource {
+    private static final CurrencyPair DKK_USD = CurrencyPair.of("DKK", "USD");
+    private static final int MAX_HISTORY_POINTS = 100_000;
+    private static final Duration DEFAULT_HISTORY_RANGE = Duration.ofDays(30);
 
     private final ExchangeRateApiGateway gateway;
+    private final FxConversionService conversions;
+    private final FxHistoryService history;
 
     @Inject
-    public FxResource(ExchangeRateApiGateway gateway) {
+    public FxResource(ExchangeRateApiGateway gateway, FxConversionService conversions, FxHistoryService history) {
         this.gateway = gateway;
+        this.conversions = conversions;
+        this.history = history;
     }
 
     @GET
     @Path("/dkk-usd")
-    @Operation(summary = "Convert DKK to USD", description = "Uses exchangerate-api.com pair conversion. Default amount=100.00")
-    public DkkUsdResponse convert(@QueryParam("amount") BigDecimal amount) {
+    @Operation(summary = "Convert DKK to USD", description = "Uses the cached exchangerate-api.com DKK/USD rate. Default amount=100.00")
+    public Uni<DkkUsdResponse> convert(@QueryParam("amount") BigDecimal amount) {
         BigDecimal dkk = (amount == null) ? new BigDecimal("100.00") : amount;
 
         if (dkk.signum() < 0) {
             throw new IllegalArgumentException("amount must be non-negative");
         }
 
-        String amountStr = dkk.setScale(2, RoundingMode.UNNECESSARY).toPlainString();
+        //max 2 decimals, same rule as account amounts
+        dkk.setScale(2, RoundingMode.UNNECESSARY);
 
-        ExchangeRateApiPairResponse response = gateway.pair("DKK", "USD", amountStr);
+        //the provider is only asked for the rate (and not for every amount), the multiplication is local.
+        //Uni: a cache miss waits for the provider without holding a thread
+        return gateway.rate(DKK_USD).map(rate -> new DkkUsdResponse(dkk, applyRate(dkk, rate)));
+    }
+
+    @POST
+    @Path("/convert:batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Convert many amounts between any currencies",
+            description = "All items use one cached latest-rates snapshot (cross rates are derived locally). "
+                    + "Each item succeeds or fails on its own; max 10000 items")
+    public Uni<ConvertBatchResponse> convertBatch(ConvertBatchRequest request) {
+        return conversions.convertBatch(request);
+    }
+
+    //history endpoints never call the provider, they only read what was recorded by earlier fetches
+    @GET
+    @Path("/{base:[A-Za-z]{3}}-{target:[A-Za-z]{3}}/history")
+    @Operation(summary = "Recorded rates of a currency pair",
+            description = "Oldest first. Defaults: to=now, from=to-30d, limit=10000 (max 100000)")
+    public RateHistoryResponse history(@PathParam("base") String base,
+                                       @PathParam("target") String target,
+                                       @QueryParam("from") String from,
+                                       @QueryParam("to") String to,
+                                       @QueryParam("limit") @DefaultValue("10000") int limit) {
+        CurrencyPair pair = parsePair(base, target);
+        if (limit < 1 || limit > MAX_HISTORY_POINTS) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_HISTORY_POINTS);
+        }
+        Instant toInstant = to == null ? Instant.now() : parseInstant(to, "to");
+        Instant fromInstant = from == null ? toInstant.minus(DEFAULT_HISTORY_RANGE) : parseInstant(from, "from");
+        if (fromInstant.isAfter(toInstant)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        List<RatePoint> points = history.history(pair, fromInstant, toInstant, limit);
+        return new RateHistoryResponse(pair.base(), pair.target(), fromInstant, toInstant, points);
+    }
+
+    @GET
+    @Path("/{base:[A-Za-z]{3}}-{target:[A-Za-z]{3}}/rate")
+    @Operation(summary = "Rate of a currency pair as of a point in time",
+            description = "The last recorded rate at or before `at` (default now); 404 if nothing was recorded before")
+    public RateAtResponse rateAt(@PathParam("base") String base,
+                                 @PathParam("target") String target,
+                                 @QueryParam("at") String at) {
+        CurrencyPair pair = parsePair(base, target);
+        Instant asOf = at == null ? Instant.now() : parseInstant(at, "at");
+        RatePoint point = history.rateAt(pair, asOf);
+        if (point == null) {
+            throw new NotFoundException("No " + pair + " rate recorded at or before " + asOf);
+        }
+        return new RateAtResponse(pair.base(), pair.target(), asOf, point.at(), point.rate());
+    }
+
+    static CurrencyPair parsePair(String base, String target) {
+        CurrencyPair pair = CurrencyPair.of(base, target);
+        if (pair.base().equals(pair.target())) {
+            throw new BadRequestException("base and target must be different");
+        }
+        return pair;
+    }
+
+    static Instant parseInstant(String value, String name) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException exception) {
+            throw new BadRequestException(name + " must be an ISO-8601 instant, e.g. 2025-01-31T00:00:00Z");
+        }
+    }
 
-        return new DkkUsdResponse(dkk, response.conversionResult());
+    //rounded to cents, half-even so rounding does not drift one way over many conversions
+    static BigDecimal applyRate(BigDecimal amount, ExchangeRate rate) {
+        return amount.multiply(rate.rate()).setScale(2, RoundingMode.HALF_EVEN);
     }
 
     public record DkkUsdResponse(BigDecimal DKK, BigDecimal USD) {
@@ -0,0 +1,7 @@
+package com.bankdata.fx.api.dto;
+
+import java.util.List;
+
+//items are checked one by one: a bad item fails alone, not the whole request
+public record ConvertBatchRequest(List<ConvertItem> items) {
+}
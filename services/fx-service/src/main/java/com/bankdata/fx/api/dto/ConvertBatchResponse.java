@@ -0,0 +1,15 @@
+package com.bankdata.fx.api.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+//all results of one request are computed from the same rate snapshot
+public record ConvertBatchResponse(
+        String base,
+        String snapshotVersion,
+        Instant ratesPublishedAt,
+        int converted,
+        int failed,
+        List<ConvertResult> results
+) {
+}
@@ -0,0 +1,6 @@
+package com.bankdata.fx.api.dto;
+
+import java.math.BigDecimal;
+
+public record ConvertItem(String from, String to, BigDecimal amount) {
+}
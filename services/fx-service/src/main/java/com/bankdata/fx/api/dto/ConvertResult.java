@@ -0,0 +1,22 @@
+package com.bankdata.fx.api.dto;
+
+import java.math.BigDecimal;
+
+//converted is rounded to the target currency's minor unit (2 decimals for DKK/USD/EUR, 0 for JPY)
+public record ConvertResult(
+        int index,
+        Status status,
+        String from,
+        String to,
+        BigDecimal amount,
+        BigDecimal rate,
+        BigDecimal converted,
+        String snapshotVersion,
+        String errorCode,
+        String message
+) {
+    public enum Status {
+        CONVERTED,
+        FAILED
+    }
+}
@@ -0,0 +1,8 @@
+package com.bankdata.fx.api.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+//asOf = asked time, publishedAt = time of the rate that was valid then (the last one at or before asOf)
+public record RateAtResponse(String base, String target, Instant asOf, Instant publishedAt, BigDecimal rate) {
+}
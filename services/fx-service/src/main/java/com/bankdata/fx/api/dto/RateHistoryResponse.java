@@ -0,0 +1,10 @@
+package com.bankdata.fx.api.dto;
+
+import com.bankdata.fx.persistence.RatePoint;
+
+import java.time.Instant;
+import java.util.List;
+
+//points are oldest first; a point is valid until the next one
+public record RateHistoryResponse(String base, String target, Instant from, Instant to, List<RatePoint> points) {
+}
@@ -0,0 +1,99 @@
+package com.bankdata.fx.application;
+
+import com.bankdata.fx.api.dto.ConvertBatchRequest;
+import com.bankdata.fx.api.dto.ConvertBatchResponse;
+import com.bankdata.fx.api.dto.ConvertItem;
+import com.bankdata.fx.api.dto.ConvertResult;
+import com.bankdata.fx.api.error.BadRequestException;
+import com.bankdata.fx.integration.ExchangeRateApiGateway;
+import com.bankdata.fx.integration.RateSnapshot;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+
+@ApplicationScoped
+public class FxConversionService {
+    static final int MAX_BATCH_ITEMS = 10_000;
+
+    private final ExchangeRateApiGateway gateway;
+
+    @Inject
+    public FxConversionService(ExchangeRateApiGateway gateway) {
+        this.gateway = gateway;
+    }
+
+    //Statement generation: thousands of amounts, many currencies. ONE snapshot is taken for the whole request
+    //(a cached table, at most one provider call), so every result uses the same rates and carries its version.
+    public Uni<ConvertBatchResponse> convertBatch(ConvertBatchRequest request) {
+        if (request == null || request.items() == null || request.items().isEmpty()) {
+            throw new BadRequestException("items must not be empty");
+        }
+        if (request.items().size() > MAX_BATCH_ITEMS) {
+            throw new BadRequestException("items must contain at most " + MAX_BATCH_ITEMS + " items");
+        }
+
+        return gateway.latest().map(snapshot -> convertAll(request.items(), snapshot));
+    }
+
+    static ConvertBatchResponse convertAll(List<ConvertItem> items, RateSnapshot snapshot) {
+        List<ConvertResult> results = new ArrayList<>(items.size());
+        int converted = 0;
+        for (int i = 0; i < items.size(); i++) {
+            ConvertResult result = convert(i, items.get(i), snapshot);
+            if (result.status() == ConvertResult.Status.CONVERTED) {
+                converted++;
+            }
+            results.add(result);
+        }
+        return new ConvertBatchResponse(snapshot.base(), snapshot.version(), snapshot.publishedAt(),
+                converted, results.size() - converted, results);
+    }
+
+    static ConvertResult convert(int index, ConvertItem item, RateSnapshot snapshot) {
+        if (item == null) {
+            return failed(index, null, null, null, "INVALID_ITEM", "item must not be null");
+        }
+        String from = normalize(item.from());
+        String to = normalize(item.to());
+        BigDecimal amount = item.amount();
+        if (from == null || to == null) {
+            return failed(index, item.from(), item.to(), amount, "INVALID_CURRENCY", "from and to must be 3-letter ISO codes");
+        }
+        if (amount == null || amount.signum() < 0 || amount.stripTrailingZeros().scale() > 2) {
+            return failed(index, from, to, amount, "INVALID_AMOUNT", "amount must be non-negative with max 2 decimals");
+        }
+        BigDecimal rate = snapshot.rate(from, to);
+        if (rate == null) {
+            String unknown = snapshot.supports(from) ? to : from;
+            return failed(index, from, to, amount, "UNKNOWN_CURRENCY", "no rate for " + unknown);
+        }
+        BigDecimal result = amount.multiply(rate).setScale(minorUnits(to), RoundingMode.HALF_EVEN);
+        return new ConvertResult(index, ConvertResult.Status.CONVERTED, from, to, amount, rate, result,
+                snapshot.version(), null, null);
+    }
+
+    //JPY has no cents, KWD has three decimals; unknown to the JDK (or pseudo currencies like XAU) = 2
+    private static int minorUnits(String currency) {
+        try {
+            int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+            return digits < 0 ? 2 : digits;
+        } catch (IllegalArgumentException unknown) {
+            return 2;
+        }
+    }
+
+    private static String normalize(String code) {
+        return code != null && code.matches("[A-Za-z]{3}") ? code.toUpperCase(Locale.ROOT) : null;
+    }
+
+    private static ConvertResult failed(int index, String from, String to, BigDecimal amount, String code, String message) {
+        return new ConvertResult(index, ConvertResult.Status.FAILED, from, to, amount, null, null, null, code, message);
+    }
+}
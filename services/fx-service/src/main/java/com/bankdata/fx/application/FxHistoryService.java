@@ -0,0 +1,84 @@
+package com.bankdata.fx.application;
+
+import com.bankdata.fx.integration.CurrencyPair;
+import com.bankdata.fx.integration.FxCacheConfig;
+import com.bankdata.fx.persistence.RateHistoryStore;
+import com.bankdata.fx.persistence.RatePoint;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+//Historical rates, read only from the local store (recorded by ExchangeRateApiGateway). A pair is answered from its own series if it was ever fetched directly, otherwise as a cross
+//rate through the snapshot base: rate(A/B) = rate(base/B) / rate(base/A), both legs looked up as of the same time.
+@ApplicationScoped
+public class FxHistoryService {
+    private final RateHistoryStore store;
+    private final String base;
+
+    @Inject
+    public FxHistoryService(RateHistoryStore store, FxCacheConfig cacheConfig) {
+        this.store = store;
+        this.base = cacheConfig.snapshotBase().toUpperCase(Locale.ROOT);
+    }
+
+    //null = no rate known at that time
+    public RatePoint rateAt(CurrencyPair pair, Instant at) {
+        if (store.contains(pair)) {
+            return store.rateAt(pair, at);
+        }
+        RatePoint from = leg(pair.base(), at);
+        RatePoint to = leg(pair.target(), at);
+        if (from == null || to == null) {
+            return null;
+        }
+        return new RatePoint(latest(from.at(), to.at()), to.rate().divide(from.rate(), MathContext.DECIMAL64));
+    }
+
+    //oldest first, at most limit points
+    public List<RatePoint> history(CurrencyPair pair, Instant from, Instant to, int limit) {
+        if (store.contains(pair)) {
+            return store.range(pair, from, to, limit);
+        }
+        //walk the non-base leg, the other one is looked up as of each point (both come from the same snapshots)
+        boolean walkTarget = !pair.target().equals(base);
+        String walked = walkTarget ? pair.target() : pair.base();
+        String other = walkTarget ? pair.base() : pair.target();
+        if (walked.equals(base)) {
+            return List.of();
+        }
+
+        List<RatePoint> points = new ArrayList<>();
+        for (RatePoint point : store.range(CurrencyPair.of(base, walked), from, to, limit)) {
+            RatePoint otherLeg = leg(other, point.at());
+            if (otherLeg == null) {
+                continue;
+            }
+            BigDecimal rate = walkTarget
+                    ? point.rate().divide(otherLeg.rate(), MathContext.DECIMAL64)
+                    : otherLeg.rate().divide(point.rate(), MathContext.DECIMAL64);
+            points.add(new RatePoint(point.at(), rate));
+        }
+        return points;
+    }
+
+    //rate(base/code) as of `at`; the base itself is 1 at any time (at = null)
+    private RatePoint leg(String code, Instant at) {
+        if (code.equals(base)) {
+            return new RatePoint(null, BigDecimal.ONE);
+        }
+        return store.rateAt(CurrencyPair.of(base, code), at);
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
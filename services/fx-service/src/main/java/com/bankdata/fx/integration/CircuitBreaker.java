@@ -0,0 +1,70 @@
+package com.bankdata.fx.integration;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+//Classic three-state breaker, lock-free:
+//-	CLOSED: calls pass, `failureThreshold` consecutive failures open it
+//-	OPEN: calls are rejected until `openFor` has passed
+//-	HALF_OPEN: exactly one trial call passes; its success closes the breaker, its failure opens it again
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openForNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialRunning = new AtomicBoolean();
+    private volatile long openedAt;
+    private volatile boolean open;
+
+    CircuitBreaker(int failureThreshold, Duration openFor) {
+        this(failureThreshold, openFor, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openFor, LongSupplier nanoClock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openForNanos = openFor.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    //true = the call may go out and MUST report onSuccess/onFailure
+    boolean tryAcquire() {
+        if (!open) {
+            return true;
+        }
+        if (nanoClock.getAsLong() - openedAt < openForNanos) {
+            return false;
+        }
+        return trialRunning.compareAndSet(false, true);
+    }
+
+    void onSuccess() {
+        consecutiveFailures.set(0);
+        open = false;
+        trialRunning.set(false);
+    }
+
+    void onFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold || trialRunning.get()) {
+            openedAt = nanoClock.getAsLong();
+            open = true;
+        }
+        trialRunning.set(false);
+    }
+
+    State state() {
+        if (!open) {
+            return State.CLOSED;
+        }
+        return trialRunning.get() || nanoClock.getAsLong() - openedAt >= openForNanos ? State.HALF_OPEN : State.OPEN;
+    }
+}
@@ -0,0 +1,28 @@
+package com.bankdata.fx.integration;
+
+import java.util.Locale;
+
+//ISO 4217 codes, always upper case so "dkk/usd" and "DKK/USD" share one cache entry
+public record CurrencyPair(String base, String target) {
+
+    public CurrencyPair {
+        base = normalize(base);
+        target = normalize(target);
+    }
+
+    public static CurrencyPair of(String base, String target) {
+        return new CurrencyPair(base, target);
+    }
+
+    @Override
+    public String toString() {
+        return base + "/" + target;
+    }
+
+    private static String normalize(String code) {
+        if (code == null || !code.matches("[A-Za-z]{3}")) {
+            throw new IllegalArgumentException("currency must be a 3-letter ISO code: " + code);
+        }
+        return code.toUpperCase(Locale.ROOT);
+    }
+}
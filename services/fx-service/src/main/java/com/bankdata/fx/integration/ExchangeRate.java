@@ -0,0 +1,8 @@
+package com.bankdata.fx.integration;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+//one provider quote: 1 base = rate target. publishedAt is the provider's table time, fetchedAt is when WE got it
+public record ExchangeRate(CurrencyPair pair, BigDecimal rate, Instant publishedAt, Instant fetchedAt) {
+}
@@ -1,76 +1,294 @@
 package com.bankdata.fx.integration;
 
+import com.bankdata.fx.persistence.RateHistoryStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.ws.rs.ServiceUnavailableException;
 import org.jboss.logging.Logger;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
+//All provider traffic goes through here, and nothing here blocks a thread:
+//-	rates/snapshots are cached (RefreshingCache), so most requests never reach the provider
+//-	calls go out with sendAsync; at most fx.provider.max-concurrent in flight, the next one is rejected at once
+//-	timeouts / connection errors / 5xx are retried fx.provider.retries times
+//-	a circuit breaker stops calling a provider that keeps failing
+//-	when a load fails or is rejected, the last cached value is served instead (even if expired)
 @ApplicationScoped
 public class ExchangeRateApiGateway {
     private static final Logger LOG = Logger.getLogger(ExchangeRateApiGateway.class);
 
+    //response callbacks and retries run here, never on the caller's (event loop) thread
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
     private final HttpClient http = HttpClient.newBuilder()
             .connectTimeout(Duration.ofSeconds(3))
+            .executor(executor)
             .build();
 
     private final ObjectMapper mapper;
     private final FxConfig config;
+    private final ProviderConfig providerConfig;
+    private final RateHistoryStore history;
 
-    public ExchangeRateApiGateway(ObjectMapper mapper, FxConfig config) {
+    private final Semaphore permits;
+    private final CircuitBreaker breaker;
+
+    //rates are cached per pair, not per amount: the conversion itself is done by the caller
+    private final RefreshingCache<CurrencyPair, ExchangeRate> rates;
+    private final RefreshingCache<String, RateSnapshot> snapshots;
+    private final String snapshotBase;
+
+    private final MeterRegistry registry;
+    private final Counter rejectedOpen;
+    private final Counter rejectedBusy;
+    private final Counter staleServed;
+    private final Counter historyFailed;
+
+    public ExchangeRateApiGateway(ObjectMapper mapper,
+                                  FxConfig config,
+                                  FxCacheConfig cacheConfig,
+                                  ProviderConfig providerConfig,
+                                  RateHistoryStore history,
+                                  MeterRegistry registry) {
         this.mapper = mapper;
         this.config = config;
+        this.providerConfig = providerConfig;
+        this.history = history;
+        this.permits = new Semaphore(providerConfig.maxConcurrent());
+        this.breaker = new CircuitBreaker(providerConfig.breakerFailureThreshold(), providerConfig.breakerOpenFor());
+        this.rates = new RefreshingCache<>(this::fetchRate, cacheConfig.ttl(), cacheConfig.refreshAfter(), this::servedStale);
+        this.snapshots = new RefreshingCache<>(this::fetchSnapshot, cacheConfig.ttl(), cacheConfig.refreshAfter(), this::servedStale);
+        this.snapshotBase = cacheConfig.snapshotBase().toUpperCase(Locale.ROOT);
+
+        this.registry = registry;
+        this.rejectedOpen = rejectedCounter("circuit_open");
+        this.rejectedBusy = rejectedCounter("max_concurrent");
+        this.staleServed = Counter.builder("fx.provider.stale.served")
+                .description("Requests answered with an expired cached rate because the provider call failed")
+                .register(registry);
+        this.historyFailed = Counter.builder("fx.history.record.failed")
+                .description("Fetched rates that could not be written to the rate history")
+                .register(registry);
+        registry.gauge("fx.provider.in.flight", permits, p -> providerConfig.maxConcurrent() - p.availablePermits());
+        registry.gauge("fx.provider.circuit.open", breaker, b -> b.state() == CircuitBreaker.State.CLOSED ? 0 : 1);
+    }
+
+    //cached; only a miss or an expired entry waits for the provider
+    public Uni<ExchangeRate> rate(CurrencyPair pair) {
+        return Uni.createFrom().completionStage(() -> rates.get(pair));
+    }
+
+    //whole "latest rates" table for fx.cache.snapshot-base, cached the same way as single pairs
+    public Uni<RateSnapshot> latest() {
+        return Uni.createFrom().completionStage(() -> snapshots.get(snapshotBase));
+    }
+
+    //next call of every pair/snapshot goes to the provider; history only records what is newer than it has
+    public void evictCached() {
+        rates.clear();
+        snapshots.clear();
+    }
+
+    @PreDestroy
+    void close() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<ExchangeRate> fetchRate(CurrencyPair pair) {
+        return call("pair", "/pair/" + pair.base() + "/" + pair.target(), ExchangeRateApiPairResponse.class)
+                .thenApply(body -> {
+                    if (body.conversionRate() == null || body.conversionRate().signum() <= 0) {
+                        throw new IllegalStateException("FX provider returned no rate for " + pair);
+                    }
+                    LOG.debugf("Fetched FX rate %s = %s", pair, body.conversionRate());
+                    Instant fetchedAt = Instant.now();
+                    ExchangeRate rate = new ExchangeRate(pair, body.conversionRate(),
+                            publishedAt(body.timeLastUpdateUnix(), fetchedAt), fetchedAt);
+                    recordHistory(() -> history.record(pair, rate.publishedAt(), rate.rate()), pair);
+                    return rate;
+                });
+    }
+
+    private CompletableFuture<RateSnapshot> fetchSnapshot(String base) {
+        return call("latest", "/latest/" + base, ExchangeRateApiLatestResponse.class)
+                .thenApply(body -> toSnapshot(base, body));
     }
 
-    public ExchangeRateApiPairResponse pair(String base, String target, String amount) {
+    private RateSnapshot toSnapshot(String base, ExchangeRateApiLatestResponse body) {
+        if (body.conversionRates() == null || body.conversionRates().isEmpty()) {
+            throw new IllegalStateException("FX provider returned no rates for " + base);
+        }
+        //a zero/negative rate would poison every cross rate through it
+        Map<String, BigDecimal> rates = new HashMap<>();
+        body.conversionRates().forEach((code, rate) -> {
+            if (rate != null && rate.signum() > 0) {
+                rates.put(code.toUpperCase(Locale.ROOT), rate);
+            }
+        });
+        Instant fetchedAt = Instant.now();
+        Instant publishedAt = publishedAt(body.timeLastUpdateUnix(), fetchedAt);
+        LOG.debugf("Fetched FX snapshot base=%s currencies=%d publishedAt=%s", base, rates.size(), publishedAt);
+        rates.forEach((code, rate) -> {
+            if (!code.equals(base)) {
+                recordHistory(() -> history.record(CurrencyPair.of(base, code), publishedAt, rate), base + "/" + code);
+            }
+        });
+        return new RateSnapshot(base, rates, publishedAt, fetchedAt);
+    }
+
+    //path is appended after the api key, e.g. "/pair/DKK/USD" (without an amount: only the rate is used).
+    //The permit is taken BEFORE asking the breaker: a half-open trial must never be lost to a full semaphore.
+    private <T extends ExchangeRateApiResponse> CompletableFuture<T> call(String endpoint, String path, Class<T> type) {
         String apiKey = config.apiKey();
         if (apiKey == null || apiKey.isBlank() || "__MISSING__".equals(apiKey)) {
-            throw new ServiceUnavailableException("FX service is not configured: EXCHANGE_RATE_API_KEY is missing");
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("FX service is not configured: EXCHANGE_RATE_API_KEY is missing"));
+        }
+        if (!permits.tryAcquire()) {
+            rejectedBusy.increment();
+            return CompletableFuture.failedFuture(new ServiceUnavailableException("FX provider is busy, try again later"));
+        }
+        if (!breaker.tryAcquire()) {
+            permits.release();
+            rejectedOpen.increment();
+            return CompletableFuture.failedFuture(new ServiceUnavailableException("FX provider is unavailable (circuit open)"));
         }
 
         String baseUrl = config.baseUrl();
         if (baseUrl.endsWith("/")) {
             baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
         }
-
-        URI uri = URI.create(baseUrl + "/" + apiKey + "/pair/" + base + "/" + target + "/" + amount);
-
         HttpRequest request = HttpRequest.newBuilder()
-                .uri(uri)
-                .timeout(Duration.ofSeconds(5))
+                .uri(URI.create(baseUrl + "/" + apiKey + path))
+                .timeout(providerConfig.timeout())
                 .GET()
                 .build();
 
+        return attempt(endpoint, request, type, providerConfig.retries())
+                .whenComplete((body, failure) -> {
+                    permits.release();
+                    if (failure == null) {
+                        breaker.onSuccess();
+                    } else {
+                        breaker.onFailure();
+                    }
+                });
+    }
+
+    private <T extends ExchangeRateApiResponse> CompletableFuture<T> attempt(String endpoint, HttpRequest request,
+                                                                            Class<T> type, int retriesLeft) {
+        Timer.Sample sample = Timer.start(registry);
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> parse(response, type))
+                .whenComplete((body, failure) -> sample.stop(requestTimer(endpoint, failure == null ? "success" : "error")))
+                .exceptionallyCompose(failure -> {
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                    if (retriesLeft <= 0 || !isRetryable(cause)) {
+                        return CompletableFuture.failedFuture(cause);
+                    }
+                    LOG.debugf("FX provider call failed (%s), retrying", cause.toString());
+                    Executor delayed = CompletableFuture.delayedExecutor(
+                            providerConfig.retryDelay().toMillis(), TimeUnit.MILLISECONDS, executor);
+                    return CompletableFuture.supplyAsync(() -> null, delayed)
+                            .thenCompose(ignored -> attempt(endpoint, request, type, retriesLeft - 1));
+                });
+    }
+
+    private <T extends ExchangeRateApiResponse> T parse(HttpResponse<String> response, Class<T> type) {
+        if (response.statusCode() / 100 != 2) {
+            LOG.warnf("ExchangeRate API non-2xx: status=%s body=%s", response.statusCode(), response.body());
+            throw new ProviderHttpException(response.statusCode());
+        }
+        T body;
         try {
-            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            body = mapper.readValue(response.body(), type);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Failed to parse ExchangeRate provider response", exception);
+        }
+        if (!body.isSuccess()) {
+            LOG.warnf("ExchangeRate API error: errorType=%s body = %s", body.errorType(), response.body());
+            throw new IllegalStateException("FX  provider error: " + body.errorType());
+        }
+        return body;
+    }
 
-            if (response.statusCode() / 100 != 2) {
-                LOG.warnf("ExchangeRate API non-2xx: status=%s body=%s", response.statusCode(), response.body());
-                throw new ServiceUnavailableException("FX provider error (HTTP " + response.statusCode() + ")");
-            }
+    //transport errors (incl. timeouts) and 5xx may go away on their own; 4xx and bad bodies will not
+    private static boolean isRetryable(Throwable failure) {
+        if (failure instanceof ProviderHttpException http) {
+            return http.status() >= 500;
+        }
+        return failure instanceof IOException;
+    }
 
-            ExchangeRateApiPairResponse body = mapper.readValue(response.body(), ExchangeRateApiPairResponse.class);
+    private void servedStale(Object key, Throwable failure) {
+        staleServed.increment();
+        LOG.warnf("FX provider call failed for %s (%s), serving the last cached value", key, failure.toString());
+    }
 
-            if (!body.isSuccess()) {
-                LOG.warnf("ExchangeRate API error: errorType=%s body = %s", body.errorType(), response.body());
-                throw new IllegalStateException("FX  provider error: " + body.errorType());
-            }
+    private Timer requestTimer(String endpoint, String outcome) {
+        return Timer.builder("fx.provider.request")
+                .description("Provider call latency per attempt")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
 
-            return body;
+    private Counter rejectedCounter(String reason) {
+        return Counter.builder("fx.provider.rejected")
+                .description("Provider calls not made because of the circuit breaker or the concurrency limit")
+                .tag("reason", reason)
+                .register(registry);
+    }
 
-        } catch (IOException exception) {
-            throw new IllegalStateException("Failed to parse ExchangeRate provider response", exception);
-        } catch (InterruptedException exception) {
-            Thread.currentThread().interrupt();
-            throw new IllegalStateException("ExchangeRate provider call interrupted", exception);
+    //refetching the same provider table is not recorded twice (same publish time);
+    //a failed write does not fail the conversion, but it is counted so a broken history is visible
+    private void recordHistory(Runnable record, Object what) {
+        try {
+            record.run();
+        } catch (RuntimeException exception) {
+            historyFailed.increment();
+            LOG.warnf(exception, "Failed to record FX rate history of %s", what);
         }
     }
 
+    private static Instant publishedAt(Long unixSeconds, Instant fallback) {
+        return unixSeconds == null ? fallback : Instant.ofEpochSecond(unixSeconds);
+    }
+
+    //non-2xx from the provider; a 503 to our own caller like before
+    static final class ProviderHttpException extends ServiceUnavailableException {
+        private final int status;
+
+        ProviderHttpException(int status) {
+            super("FX provider error (HTTP " + status + ")");
+            this.status = status;
+        }
 
+        int status() {
+            return status;
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package com.bankdata.fx.integration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+//GET /{key}/latest/{base}: 1 base = conversion_rates[code] code, for every supported currency
+public record ExchangeRateApiLatestResponse(
+        String result,
+        @JsonProperty("error-type") String errorType,
+        @JsonProperty("base_code") String baseCode,
+        @JsonProperty("time_last_update_unix") Long timeLastUpdateUnix,
+        @JsonProperty("conversion_rates") Map<String, BigDecimal> conversionRates
+) implements ExchangeRateApiResponse {
+}
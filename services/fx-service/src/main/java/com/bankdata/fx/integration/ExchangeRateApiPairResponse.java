@@ -9,10 +9,8 @@ public record ExchangeRateApiPairResponse(
         @JsonProperty("error-type") String errorType,
         @JsonProperty("base-code") String baseCode,
         @JsonProperty("target-code") String targetCode,
+        @JsonProperty("time_last_update_unix") Long timeLastUpdateUnix,
         @JsonProperty("conversion_rate") BigDecimal conversionRate,
         @JsonProperty("conversion_result") BigDecimal conversionResult
-) {
-    public boolean isSuccess() {
-        return "success".equalsIgnoreCase(result);
-    }
+) implements ExchangeRateApiResponse {
 }
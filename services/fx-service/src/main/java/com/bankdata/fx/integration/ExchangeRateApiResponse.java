@@ -0,0 +1,12 @@
+package com.bankdata.fx.integration;
+
+//common part of every exchangerate-api response body
+interface ExchangeRateApiResponse {
+    String result();
+
+    String errorType();
+
+    default boolean isSuccess() {
+        return "success".equalsIgnoreCase(result());
+    }
+}
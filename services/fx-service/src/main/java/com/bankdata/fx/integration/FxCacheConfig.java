@@ -0,0 +1,23 @@
+package com.bankdata.fx.integration;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "fx.cache")
+public interface FxCacheConfig {
+
+    //a rate older than this is never served, the next request waits for a fresh one
+    @WithDefault("10m")
+    Duration ttl();
+
+    //a hit older than this is still served, but triggers one background reload - so busy pairs never expire.
+    //Must be shorter than ttl, otherwise refresh-ahead is effectively off
+    @WithDefault("8m")
+    Duration refreshAfter();
+
+    //base of the cached "latest rates" table; every other pair is a cross rate through it
+    @WithDefault("USD")
+    String snapshotBase();
+}
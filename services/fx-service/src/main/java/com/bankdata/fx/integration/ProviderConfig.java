@@ -0,0 +1,33 @@
+package com.bankdata.fx.integration;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+//how hard fx-service is allowed to lean on the rate provider
+@ConfigMapping(prefix = "fx.provider")
+public interface ProviderConfig {
+
+    //calls in flight at once; one more is rejected right away (and answered from the stale cache, if possible)
+    @WithDefault("8")
+    int maxConcurrent();
+
+    @WithDefault("5s")
+    Duration timeout();
+
+    //extra attempts after a timeout, connection error or 5xx
+    @WithDefault("1")
+    int retries();
+
+    @WithDefault("200ms")
+    Duration retryDelay();
+
+    //consecutive failed calls (after retries) that open the circuit
+    @WithDefault("5")
+    int breakerFailureThreshold();
+
+    //while open every call is rejected without touching the network; then ONE trial call decides
+    @WithDefault("30s")
+    Duration breakerOpenFor();
+}
@@ -0,0 +1,41 @@
+package com.bankdata.fx.integration;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+import java.util.Map;
+
+//One "latest rates" table: 1 base = rates[code] code. Any cross rate is derived from it in memory, so
+//converting between N currencies costs ONE provider call instead of N*N pair calls.
+//version identifies the provider's table (base + publish time), equal versions = identical rates.
+public record RateSnapshot(String base, Map<String, BigDecimal> rates, Instant publishedAt, Instant fetchedAt) {
+
+    public RateSnapshot {
+        rates = Map.copyOf(rates);
+    }
+
+    public String version() {
+        return base + "@" + publishedAt.getEpochSecond();
+    }
+
+    public boolean supports(String currency) {
+        return base.equals(currency) || rates.containsKey(currency);
+    }
+
+    //1 from = result to; null if either currency is not in the table
+    public BigDecimal rate(String from, String to) {
+        BigDecimal fromRate = base.equals(from) ? BigDecimal.ONE : rates.get(from);
+        BigDecimal toRate = base.equals(to) ? BigDecimal.ONE : rates.get(to);
+        if (fromRate == null || toRate == null) {
+            return null;
+        }
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
+        }
+        if (fromRate.compareTo(BigDecimal.ONE) == 0) {
+            return toRate;
+        }
+        //16 significant digits: far beyond the provider's own precision, exact enough for any amount in cents
+        return toRate.divide(fromRate, MathContext.DECIMAL64);
+    }
+}
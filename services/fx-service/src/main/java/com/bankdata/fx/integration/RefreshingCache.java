@@ -0,0 +1,116 @@
+package com.bankdata.fx.integration;
+
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+//Small read-through cache for provider data, fully async (no thread ever waits for the provider):
+//-	fresh hit (age < refreshAfter): completed future, no locks
+//-	stale hit (refreshAfter <= age < ttl): completed future, one reload is started in the background
+//-	miss / expired: the future of the load
+//Loads are single-flight per key: concurrent misses share one loader call.
+//A failed load caches nothing. If an expired value exists it is returned instead of the failure
+//(last known rate beats no rate) and onStale is told; with no value at all the failure is passed on.
+final class RefreshingCache<K, V> {
+    private static final Logger LOG = Logger.getLogger(RefreshingCache.class);
+
+    private final Function<K, CompletableFuture<V>> loader;
+    private final long ttlNanos;
+    private final long refreshAfterNanos;
+    private final BiConsumer<K, Throwable> onStale;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    RefreshingCache(Function<K, CompletableFuture<V>> loader, Duration ttl, Duration refreshAfter, BiConsumer<K, Throwable> onStale) {
+        this(loader, ttl, refreshAfter, onStale, System::nanoTime);
+    }
+
+    RefreshingCache(Function<K, CompletableFuture<V>> loader, Duration ttl, Duration refreshAfter,
+                    BiConsumer<K, Throwable> onStale, LongSupplier nanoClock) {
+        this.loader = loader;
+        this.ttlNanos = ttl.toNanos();
+        this.refreshAfterNanos = Math.min(refreshAfter.toNanos(), ttlNanos);
+        this.onStale = onStale;
+        this.nanoClock = nanoClock;
+    }
+
+    CompletableFuture<V> get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            long age = nanoClock.getAsLong() - entry.loadedAt();
+            if (age < ttlNanos) {
+                if (age >= refreshAfterNanos) {
+                    refreshInBackground(key);
+                }
+                return CompletableFuture.completedFuture(entry.value());
+            }
+        }
+        return loadOnce(key).exceptionallyCompose(failure -> {
+            Entry<V> expired = entries.get(key);
+            if (expired == null) {
+                return CompletableFuture.failedFuture(unwrap(failure));
+            }
+            onStale.accept(key, unwrap(failure));
+            return CompletableFuture.completedFuture(expired.value());
+        });
+    }
+
+    //loads already running still complete their callers and store their value
+    void clear() {
+        entries.clear();
+    }
+
+    private void refreshInBackground(K key) {
+        if (inFlight.containsKey(key)) {
+            return;
+        }
+        loadOnce(key).whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                LOG.warnf(unwrap(failure), "Background refresh failed for %s, serving the cached value until it expires", key);
+            }
+        });
+    }
+
+    //entry is stored BEFORE the in-flight future is removed, so a caller arriving in between sees either the
+    //running load or the new value - never a second miss
+    private CompletableFuture<V> loadOnce(K key) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture<V> loading;
+        try {
+            loading = loader.apply(key);
+        } catch (RuntimeException failure) {
+            loading = CompletableFuture.failedFuture(failure);
+        }
+        loading.whenComplete((value, failure) -> {
+            if (failure == null) {
+                entries.put(key, new Entry<>(value, nanoClock.getAsLong()));
+                inFlight.remove(key, created);
+                created.complete(value);
+            } else {
+                inFlight.remove(key, created);
+                created.completeExceptionally(unwrap(failure));
+            }
+        });
+        return created;
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
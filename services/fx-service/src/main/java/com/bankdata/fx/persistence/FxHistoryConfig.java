@@ -0,0 +1,16 @@
+package com.bankdata.fx.persistence;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "fx.history")
+public interface FxHistoryConfig {
+
+    //false = fetched rates are not recorded, history endpoints only see what is already on disk
+    @WithDefault("true")
+    boolean enabled();
+
+    //one file per currency pair (e.g. USD-DKK.rates) lives here
+    @WithDefault("data/fx-history")
+    String dir();
+}
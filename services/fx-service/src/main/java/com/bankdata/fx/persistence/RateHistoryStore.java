@@ -0,0 +1,93 @@
+package com.bankdata.fx.persistence;
+
+import com.bankdata.fx.integration.CurrencyPair;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+//Every rate fetched from the provider ends up here, one RateSeries file per pair. Reads never call the provider.
+//Series are opened lazily; reading a pair that was never recorded does not create a file.
+//@Startup: records come from provider callback threads, and the bean (with its config mapping) can't be
+//created there the first time, so it is built eagerly and only reads plain fields afterwards.
+@Startup
+@ApplicationScoped
+public class RateHistoryStore {
+    private static final Logger LOG = Logger.getLogger(RateHistoryStore.class);
+
+    private final boolean enabled;
+    private final Path dir;
+    private final ConcurrentMap<CurrencyPair, RateSeries> series = new ConcurrentHashMap<>();
+
+    @Inject
+    public RateHistoryStore(FxHistoryConfig config) {
+        this.enabled = config.enabled();
+        this.dir = Path.of(config.dir());
+    }
+
+    //true = stored; false = not newer than the last point of the pair (or recording is off)
+    public boolean record(CurrencyPair pair, Instant at, BigDecimal rate) {
+        if (!enabled) {
+            return false;
+        }
+        return series.computeIfAbsent(pair, this::open).append(at, rate);
+    }
+
+    public RatePoint rateAt(CurrencyPair pair, Instant at) {
+        RateSeries existing = find(pair);
+        return existing == null ? null : existing.floor(at);
+    }
+
+    public List<RatePoint> range(CurrencyPair pair, Instant from, Instant to, int limit) {
+        RateSeries existing = find(pair);
+        return existing == null ? List.of() : existing.range(from, to, limit);
+    }
+
+    public boolean contains(CurrencyPair pair) {
+        return find(pair) != null;
+    }
+
+    @PreDestroy
+    void close() {
+        series.forEach((pair, one) -> {
+            try {
+                one.close();
+            } catch (IOException exception) {
+                LOG.warnf(exception, "Failed to close FX rate history of %s", pair);
+            }
+        });
+        series.clear();
+    }
+
+    private RateSeries find(CurrencyPair pair) {
+        RateSeries open = series.get(pair);
+        if (open != null || !Files.exists(file(pair))) {
+            return open;
+        }
+        return series.computeIfAbsent(pair, this::open);
+    }
+
+    private RateSeries open(CurrencyPair pair) {
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to create FX history directory " + dir, exception);
+        }
+        return RateSeries.open(file(pair));
+    }
+
+    private Path file(CurrencyPair pair) {
+        return dir.resolve(pair.base() + "-" + pair.target() + ".rates");
+    }
+}
@@ -0,0 +1,8 @@
+package com.bankdata.fx.persistence;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+//1 base = rate target, valid from `at` (provider's publish time) until the next point
+public record RatePoint(Instant at, BigDecimal rate) {
+}
@@ -0,0 +1,197 @@
+package com.bankdata.fx.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Append-only time series of ONE currency pair in a memory-mapped file:
+//	header (16 bytes): magic, record size, record count
+//	records (16 bytes each): epoch millis, rate * 10^12 - both longs, sorted by time
+//A year of minute-level rates is ~8 MB; a lookup is a binary search over the mapping (~20 probes for years of data),
+//no parsing, no copies. The count is written AFTER the record, so a crash mid-append loses at most that record.
+//Appends are serialized by a lock (they are rare: one per provider fetch), reads never lock.
+final class RateSeries implements AutoCloseable {
+    static final int RATE_SCALE = 12;
+
+    private static final int MAGIC = 0x46584831; //"FXH1"
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final int INITIAL_RECORDS = 4096;
+
+    private final FileChannel channel;
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    //buffer is replaced before count is raised, so a reader that sees a count also sees a mapping that covers it
+    private volatile MappedByteBuffer buffer;
+    private volatile int count;
+
+    private RateSeries(FileChannel channel, MappedByteBuffer buffer, int count) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.count = count;
+    }
+
+    static RateSeries open(Path file) {
+        try {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                long size = channel.size();
+                if (size == 0) {
+                    MappedByteBuffer buffer = map(channel, INITIAL_RECORDS);
+                    buffer.putInt(0, MAGIC);
+                    buffer.putInt(4, RECORD_BYTES);
+                    buffer.putLong(COUNT_OFFSET, 0);
+                    return new RateSeries(channel, buffer, 0);
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                if (size < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != RECORD_BYTES) {
+                    throw new IllegalStateException("Not an FX rate history file: " + file);
+                }
+                long stored = buffer.getLong(COUNT_OFFSET);
+                if (stored < 0 || HEADER_BYTES + stored * RECORD_BYTES > size) {
+                    throw new IllegalStateException("Corrupt FX rate history file (count=" + stored + "): " + file);
+                }
+                return new RateSeries(channel, buffer, (int) stored);
+            } catch (RuntimeException | IOException exception) {
+                channel.close();
+                throw exception;
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to open FX rate history " + file, exception);
+        }
+    }
+
+    //false = not appended: not newer than the last point (same provider table fetched again, or clock going back)
+    boolean append(Instant at, BigDecimal rate) {
+        long millis = at.toEpochMilli();
+        long scaled = rate.setScale(RATE_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+
+        appendLock.lock();
+        try {
+            int n = count;
+            if (n > 0 && millis <= timeAt(buffer, n - 1)) {
+                return false;
+            }
+            MappedByteBuffer target = buffer;
+            if (HEADER_BYTES + (long) (n + 1) * RECORD_BYTES > target.capacity()) {
+                target = map(channel, Math.max(INITIAL_RECORDS, n * 2));
+                buffer = target;
+            }
+            int offset = HEADER_BYTES + n * RECORD_BYTES;
+            target.putLong(offset, millis);
+            target.putLong(offset + 8, scaled);
+            target.putLong(COUNT_OFFSET, n + 1);
+            count = n + 1;
+            return true;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to grow FX rate history", exception);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    //last point at or before `at`, null if the series starts later
+    RatePoint floor(Instant at) {
+        int n = count;
+        MappedByteBuffer view = buffer;
+        int index = upperBound(view, n, millis(at)) - 1;
+        return index < 0 ? null : pointAt(view, index);
+    }
+
+    //points with from <= at <= to, oldest first, at most limit
+    List<RatePoint> range(Instant from, Instant to, int limit) {
+        int n = count;
+        MappedByteBuffer view = buffer;
+        long toMillis = millis(to);
+        List<RatePoint> points = new ArrayList<>();
+        for (int i = lowerBound(view, n, millis(from)); i < n && points.size() < limit; i++) {
+            if (timeAt(view, i) > toMillis) {
+                break;
+            }
+            points.add(pointAt(view, i));
+        }
+        return points;
+    }
+
+    int size() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    //first index with time >= millis
+    private static int lowerBound(MappedByteBuffer view, int n, long millis) {
+        int low = 0;
+        int high = n;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timeAt(view, mid) < millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    //first index with time > millis
+    private static int upperBound(MappedByteBuffer view, int n, long millis) {
+        int low = 0;
+        int high = n;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timeAt(view, mid) <= millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    //Instant.MIN/MAX as open bounds
+    private static long millis(Instant at) {
+        if (at.isBefore(Instant.EPOCH.minusSeconds(Long.MAX_VALUE / 1000))) {
+            return Long.MIN_VALUE;
+        }
+        if (at.isAfter(Instant.EPOCH.plusSeconds(Long.MAX_VALUE / 1000))) {
+            return Long.MAX_VALUE;
+        }
+        return at.toEpochMilli();
+    }
+
+    private static long timeAt(MappedByteBuffer view, int index) {
+        return view.getLong(HEADER_BYTES + index * RECORD_BYTES);
+    }
+
+    private static RatePoint pointAt(MappedByteBuffer view, int index) {
+        int offset = HEADER_BYTES + index * RECORD_BYTES;
+        BigDecimal rate = BigDecimal.valueOf(view.getLong(offset + 8), RATE_SCALE).stripTrailingZeros();
+        return new RatePoint(Instant.ofEpochMilli(view.getLong(offset)), rate.scale() < 0 ? rate.setScale(0) : rate);
+    }
+
+    //mapping past the end of the file grows the file
+    private static MappedByteBuffer map(FileChannel channel, int records) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) records * RECORD_BYTES);
+    }
+}
@@ -0,0 +1,164 @@
+package com.bankdata.fx.stub;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+//exchangerate-api look-alike: GET {key}/latest/{base} and {key}/pair/{base}/{target}, same JSON fields.
+//Served by fx-service itself when fx.stub.enabled=true, so the real HTTP path (sendAsync, timeouts, breaker,
+//cache) can be exercised and measured without a network or an API key. Latency is a timer, not a sleep.
+@Path("/stub/exchangerate/{key}")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "FX provider stub")
+@ApplicationScoped
+public class StubExchangeRateResource {
+
+    //1 USD = ... (starting point of the drift)
+    private static final Map<String, BigDecimal> USD_RATES = Map.of(
+            "USD", BigDecimal.ONE,
+            "DKK", new BigDecimal("6.4"),
+            "EUR", new BigDecimal("0.8"),
+            "GBP", new BigDecimal("0.75"),
+            "SEK", new BigDecimal("10.5"),
+            "NOK", new BigDecimal("10.8"),
+            "CHF", new BigDecimal("0.9"),
+            "JPY", new BigDecimal("150")
+    );
+
+    private final StubProviderConfig config;
+
+    //current table; replaced as a whole on every drift step
+    private final ReentrantLock driftLock = new ReentrantLock();
+    private volatile Table table;
+
+    @Inject
+    public StubExchangeRateResource(StubProviderConfig config) {
+        this.config = config;
+        this.table = new Table(Map.copyOf(USD_RATES), config.publishedAt());
+    }
+
+    @GET
+    @Path("/latest/{base}")
+    @Operation(summary = "Stub of exchangerate-api /latest")
+    public Uni<Response> latest(@PathParam("base") String base) {
+        return answer(() -> {
+            Table current = next();
+            String code = base.toUpperCase(Locale.ROOT);
+            if (!current.usdRates().containsKey(code)) {
+                return error(404, "unsupported-code");
+            }
+            Map<String, BigDecimal> rates = new LinkedHashMap<>();
+            current.usdRates().keySet().stream().sorted()
+                    .forEach(target -> rates.put(target, current.cross(code, target)));
+            return Response.ok(Map.of(
+                    "result", "success",
+                    "base_code", code,
+                    "time_last_update_unix", current.publishedAt().getEpochSecond(),
+                    "conversion_rates", rates
+            )).build();
+        });
+    }
+
+    @GET
+    @Path("/pair/{base}/{target}")
+    @Operation(summary = "Stub of exchangerate-api /pair")
+    public Uni<Response> pair(@PathParam("base") String base, @PathParam("target") String target) {
+        return answer(() -> {
+            Table current = next();
+            String from = base.toUpperCase(Locale.ROOT);
+            String to = target.toUpperCase(Locale.ROOT);
+            if (!current.usdRates().containsKey(from) || !current.usdRates().containsKey(to)) {
+                return error(404, "unsupported-code");
+            }
+            return Response.ok(Map.of(
+                    "result", "success",
+                    "base_code", from,
+                    "target_code", to,
+                    "time_last_update_unix", current.publishedAt().getEpochSecond(),
+                    "conversion_rate", current.cross(from, to)
+            )).build();
+        });
+    }
+
+    private Uni<Response> answer(Supplier<Response> body) {
+        if (!config.enabled()) {
+            throw new NotFoundException();
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Response response = random.nextDouble() < config.errorRate() ? error(503, "stub-error") : body.get();
+        Duration delay = config.latency();
+        long jitter = config.latencyJitter().toNanos();
+        if (jitter > 0) {
+            delay = delay.plusNanos(random.nextLong(jitter + 1));
+        }
+        Uni<Response> uni = Uni.createFrom().item(response);
+        return delay.isZero() ? uni : uni.onItem().delayIt().by(delay);
+    }
+
+    //same rates, republished at the given time (tests and demos that need a new provider table without drift)
+    public void publish(Instant publishedAt) {
+        driftLock.lock();
+        try {
+            table = new Table(table.usdRates(), publishedAt);
+        } finally {
+            driftLock.unlock();
+        }
+    }
+
+    //without drift the table never changes; with drift every call publishes a new one
+    private Table next() {
+        if (config.drift() <= 0) {
+            return table;
+        }
+        driftLock.lock();
+        try {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Map<String, BigDecimal> moved = new LinkedHashMap<>();
+            table.usdRates().forEach((code, rate) -> moved.put(code, code.equals("USD") ? rate
+                    : rate.multiply(BigDecimal.valueOf(1 + random.nextDouble(-config.drift(), config.drift())))
+                    .setScale(6, RoundingMode.HALF_EVEN)));
+            Instant now = Instant.now();
+            //publish time must move forward, otherwise history would not record the new table
+            Instant publishedAt = now.getEpochSecond() > table.publishedAt().getEpochSecond()
+                    ? now : table.publishedAt().plusSeconds(1);
+            table = new Table(Map.copyOf(moved), publishedAt);
+            return table;
+        } finally {
+            driftLock.unlock();
+        }
+    }
+
+    private static Response error(int status, String errorType) {
+        return Response.status(status)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(Map.of("result", "error", "error-type", errorType))
+                .build();
+    }
+
+    private record Table(Map<String, BigDecimal> usdRates, Instant publishedAt) {
+        BigDecimal cross(String base, String target) {
+            return usdRates.get(target).divide(usdRates.get(base), MathContext.DECIMAL64);
+        }
+    }
+}
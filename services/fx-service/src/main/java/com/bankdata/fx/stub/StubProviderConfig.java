@@ -0,0 +1,36 @@
+package com.bankdata.fx.stub;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+import java.time.Instant;
+
+//Local stand-in for exchangerate-api (see StubExchangeRateResource), for tests and offline load tests.
+//Point fx.exchangerate.base-url at http://localhost:<port>/stub/exchangerate to use it.
+@ConfigMapping(prefix = "fx.stub")
+public interface StubProviderConfig {
+
+    //off = the stub endpoints answer 404
+    @WithDefault("false")
+    boolean enabled();
+
+    //every answer is delayed by latency + random(0..latency-jitter), without holding a thread
+    @WithDefault("0ms")
+    Duration latency();
+
+    @WithDefault("0ms")
+    Duration latencyJitter();
+
+    //share of calls answered with HTTP 503, 0.0 - 1.0
+    @WithDefault("0.0")
+    double errorRate();
+
+    //max relative move of every rate per /latest or /pair call (random walk), e.g. 0.001 = 0.1%.
+    //0 = rates never change and the table keeps the fixed published-at time
+    @WithDefault("0.0")
+    double drift();
+
+    @WithDefault("2025-10-16T00:00:01Z")
+    Instant publishedAt();
+}
@@ -0,0 +1,149 @@
+package com.bankdata.fx.api;
+
+import com.bankdata.fx.integration.ExchangeRateApiGateway;
+import com.bankdata.fx.persistence.TempHistoryDir;
+import com.bankdata.fx.stub.StubExchangeRateResource;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+@WithTestResource(TempHistoryDir.class)
+class FxResourceTest {
+    //fx.stub.published-at default
+    private static final long PUBLISHED_AT = 1_760_572_801L;
+
+    @Inject
+    StubExchangeRateResource stub;
+
+    @Inject
+    ExchangeRateApiGateway gateway;
+
+    @Test
+    void dkkUsd_convertsLocallyWithCachedRate() {
+        //1 DKK = 0.15625 USD, 15.625 is rounded half-even
+        given()
+                .queryParam("amount", "100.00")
+                .when().get("/fx/dkk-usd")
+                .then()
+                .statusCode(200)
+                .body("DKK", is(100.00f))
+                .body("USD", is(15.62f));
+    }
+
+    @Test
+    void convertBatch_usesOneSnapshot_andFailsItemsOneByOne() {
+        given()
+                .urlEncodingEnabled(false) //RestAssured would send ':' as %3A
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"items":[
+                          {"from":"DKK","to":"EUR","amount":100.00},
+                          {"from":"usd","to":"JPY","amount":10.01},
+                          {"from":"EUR","to":"XXX","amount":1.00},
+                          {"from":"EUR","to":"DKK","amount":1.001}
+                        ]}
+                        """)
+                .when().post("/fx/convert:batch")
+                .then()
+                .statusCode(200)
+                .body("base", is("USD"))
+                .body("snapshotVersion", is("USD@" + PUBLISHED_AT))
+                .body("converted", is(2))
+                .body("failed", is(2))
+                .body("results[0].status", is("CONVERTED"))
+                .body("results[0].converted", is(12.50f))
+                .body("results[0].snapshotVersion", is("USD@" + PUBLISHED_AT))
+                //JPY has no minor unit
+                .body("results[1].from", is("USD"))
+                .body("results[1].converted", is(1502))
+                .body("results[2].errorCode", is("UNKNOWN_CURRENCY"))
+                .body("results[3].errorCode", is("INVALID_AMOUNT"));
+    }
+
+    @Test
+    void convertBatch_emptyItems_returns400() {
+        given()
+                .urlEncodingEnabled(false) //RestAssured would send ':' as %3A
+                .contentType(ContentType.JSON)
+                .body("{\"items\":[]}")
+                .when().post("/fx/convert:batch")
+                .then()
+                .statusCode(400)
+                .body("code", is("BAD_REQUEST"));
+    }
+
+    @Test
+    void history_isRecordedFromFetchedSnapshots_andCrossRatesAreDerived() {
+        //a provider table published now, so the assertions only match what this test fetched and recorded
+        Instant publishedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        stub.publish(publishedAt);
+        gateway.evictCached();
+        try {
+            given()
+                    .urlEncodingEnabled(false) //RestAssured would send ':' as %3A
+                    .contentType(ContentType.JSON)
+                    .body("{\"items\":[{\"from\":\"USD\",\"to\":\"EUR\",\"amount\":1.00}]}")
+                    .when().post("/fx/convert:batch")
+                    .then()
+                    .statusCode(200)
+                    .body("snapshotVersion", is("USD@" + publishedAt.getEpochSecond()));
+
+            given()
+                    .queryParam("from", publishedAt.toString())
+                    .queryParam("to", publishedAt.plusSeconds(1).toString())
+                    .when().get("/fx/USD-EUR/history")
+                    .then()
+                    .statusCode(200)
+                    .body("points.size()", is(1))
+                    .body("points[0].at", is(publishedAt.toString()))
+                    .body("points[0].rate", is(0.8f));
+
+            //DKK/EUR was never fetched: 0.8 / 6.4 through USD
+            given()
+                    .queryParam("at", publishedAt.plusSeconds(60).toString())
+                    .when().get("/fx/dkk-eur/rate")
+                    .then()
+                    .statusCode(200)
+                    .body("base", is("DKK"))
+                    .body("publishedAt", is(publishedAt.toString()))
+                    .body("rate", is(0.125f));
+        } finally {
+            //back to the default table for the other tests
+            stub.publish(Instant.ofEpochSecond(PUBLISHED_AT));
+            gateway.evictCached();
+        }
+
+        given()
+                .queryParam("at", "2025-10-15T00:00:00Z")
+                .when().get("/fx/DKK-EUR/rate")
+                .then()
+                .statusCode(404);
+
+        given()
+                .queryParam("from", "yesterday")
+                .when().get("/fx/USD-EUR/history")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void providerCalls_areMeasured() {
+        given().when().get("/fx/dkk-usd").then().statusCode(200);
+
+        given()
+                .when().get("/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("fx_provider_request_seconds_count{endpoint=\"pair\",outcome=\"success\"}"))
+                .body(containsString("fx_provider_circuit_open 0.0"));
+    }
+}
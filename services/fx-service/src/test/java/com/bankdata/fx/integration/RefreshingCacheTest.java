@@ -0,0 +1,99 @@
+package com.bankdata.fx.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshingCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final Duration REFRESH_AFTER = Duration.ofMinutes(8);
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<String> staleServed = new ArrayList<>();
+
+    private RefreshingCache<String, Integer> cache(Function<String, CompletableFuture<Integer>> loader) {
+        return new RefreshingCache<>(loader, TTL, REFRESH_AFTER, (key, failure) -> staleServed.add(key), now::get);
+    }
+
+    @Test
+    void hitWithinTtl_doesNotCallLoader() {
+        RefreshingCache<String, Integer> cache = cache(key -> CompletableFuture.completedFuture(loads.incrementAndGet()));
+
+        assertEquals(1, cache.get("DKK/USD").join());
+        now.addAndGet(Duration.ofMinutes(7).toNanos());
+        assertEquals(1, cache.get("DKK/USD").join());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void staleHit_returnsOldValue_andRefreshesInBackground() {
+        List<CompletableFuture<Integer>> pending = new ArrayList<>();
+        RefreshingCache<String, Integer> cache = cache(key -> {
+            CompletableFuture<Integer> load = new CompletableFuture<>();
+            pending.add(load);
+            return load;
+        });
+
+        CompletableFuture<Integer> first = cache.get("DKK/USD");
+        pending.getFirst().complete(1);
+        assertEquals(1, first.join());
+        now.addAndGet(Duration.ofMinutes(9).toNanos());
+
+        assertEquals(1, cache.get("DKK/USD").join());
+        assertEquals(1, cache.get("DKK/USD").join());
+        assertEquals(2, pending.size(), "one refresh per key while it is running");
+
+        pending.get(1).complete(2);
+        assertEquals(2, cache.get("DKK/USD").join());
+    }
+
+    @Test
+    void concurrentMisses_shareOneLoad() {
+        CompletableFuture<Integer> load = new CompletableFuture<>();
+        RefreshingCache<String, Integer> cache = cache(key -> {
+            loads.incrementAndGet();
+            return load;
+        });
+
+        List<CompletableFuture<Integer>> waiting = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            waiting.add(cache.get("DKK/USD"));
+        }
+        assertTrue(waiting.stream().noneMatch(CompletableFuture::isDone), "nobody is blocked, everybody waits on the load");
+        load.complete(1);
+
+        waiting.forEach(result -> assertEquals(1, result.join()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void failedLoad_isNotCached_andServesExpiredValueIfThereIsOne() {
+        AtomicInteger failNext = new AtomicInteger();
+        RefreshingCache<String, Integer> cache = cache(key -> failNext.getAndSet(0) == 1
+                ? CompletableFuture.failedFuture(new IllegalStateException("provider down"))
+                : CompletableFuture.completedFuture(loads.incrementAndGet()));
+
+        failNext.set(1);
+        CompletionException noValueYet = assertThrows(CompletionException.class, () -> cache.get("DKK/USD").join());
+        assertInstanceOf(IllegalStateException.class, noValueYet.getCause());
+
+        assertEquals(1, cache.get("DKK/USD").join());
+        now.addAndGet(TTL.toNanos());
+        failNext.set(1);
+        assertEquals(1, cache.get("DKK/USD").join(), "last known value instead of the failure");
+        assertEquals(List.of("DKK/USD"), staleServed);
+
+        assertEquals(2, cache.get("DKK/USD").join(), "next call loads again");
+    }
+}
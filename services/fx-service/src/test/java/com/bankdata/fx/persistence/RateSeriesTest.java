@@ -0,0 +1,65 @@
+package com.bankdata.fx.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSeriesTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void floorAndRange_useBinarySearchOverSortedPoints() throws Exception {
+        try (RateSeries series = RateSeries.open(dir.resolve("USD-DKK.rates"))) {
+            for (int minute = 0; minute < 10_000; minute++) { //more than the initial mapping, forces a remap
+                assertTrue(series.append(T0.plusSeconds(minute * 60L), new BigDecimal("6.4").add(BigDecimal.valueOf(minute, 4))));
+            }
+
+            assertNull(series.floor(T0.minusMillis(1)));
+            assertEquals(new RatePoint(T0, new BigDecimal("6.4")), series.floor(T0));
+            //between two points = the earlier one
+            assertEquals(new RatePoint(T0.plusSeconds(120), new BigDecimal("6.4002")), series.floor(T0.plusSeconds(150)));
+            assertEquals(T0.plusSeconds(9_999 * 60L), series.floor(Instant.MAX).at());
+
+            List<RatePoint> range = series.range(T0.plusSeconds(60), T0.plusSeconds(300), 100);
+            assertEquals(5, range.size());
+            assertEquals(T0.plusSeconds(60), range.getFirst().at());
+            assertEquals(T0.plusSeconds(300), range.getLast().at());
+            assertEquals(2, series.range(T0, T0.plusSeconds(300), 2).size());
+        }
+    }
+
+    @Test
+    void append_rejectsPointsNotNewerThanTheLast() throws Exception {
+        try (RateSeries series = RateSeries.open(dir.resolve("USD-EUR.rates"))) {
+            assertTrue(series.append(T0, new BigDecimal("0.8")));
+            assertFalse(series.append(T0, new BigDecimal("0.9")), "same provider table fetched again");
+            assertFalse(series.append(T0.minusSeconds(1), new BigDecimal("0.9")));
+            assertEquals(1, series.size());
+        }
+    }
+
+    @Test
+    void reopen_keepsPoints_andRatePrecision() throws Exception {
+        Path file = dir.resolve("USD-JPY.rates");
+        try (RateSeries series = RateSeries.open(file)) {
+            series.append(T0, new BigDecimal("150"));
+            series.append(T0.plusSeconds(60), new BigDecimal("0.000123456789"));
+        }
+        try (RateSeries series = RateSeries.open(file)) {
+            assertEquals(2, series.size());
+            assertEquals(new BigDecimal("150"), series.floor(T0).rate());
+            assertEquals(new BigDecimal("0.000123456789"), series.floor(T0.plusSeconds(60)).rate());
+            assertTrue(series.append(T0.plusSeconds(120), BigDecimal.ONE));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.bankdata.fx.persistence;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+//Fresh fx.history.dir per test run, deleted afterwards: history assertions must see this run's recording,
+//not rate files left behind in target/ by an earlier one.
+public class TempHistoryDir implements QuarkusTestResourceLifecycleManager {
+    private Path dir;
+
+    @Override
+    public Map<String, String> start() {
+        try {
+            dir = Files.createTempDirectory("fx-history-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Map.of("fx.history.dir", dir.toString());
+    }
+
+    @Override
+    public void stop() {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}